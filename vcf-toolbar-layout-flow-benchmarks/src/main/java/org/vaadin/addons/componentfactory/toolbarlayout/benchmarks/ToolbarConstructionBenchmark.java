@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout.benchmarks;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.vaadin.addons.componentfactory.toolbarlayout.ToolbarItemSpec;
+import org.vaadin.addons.componentfactory.toolbarlayout.ToolbarLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures building a toolbar with the different {@code addItem} overloads and the bulk
+ * {@code addItems} api. The shared MenuBar mode only applies to the overloads creating menu items, so it
+ * is measured by overloads of its own.
+ */
+@State(Scope.Thread)
+public class ToolbarConstructionBenchmark extends AbstractToolbarBenchmark {
+
+    public enum Overload {
+        TEXT, TEXT_ICON, TEXT_TOOLTIP, TEXT_LISTENER, TEXT_TOOLTIP_LISTENER, COMPONENT, COMPONENT_LISTENER,
+        CLICK_NOTIFIER_LISTENER, BULK, SHARED_MENU_BAR_TEXT, SHARED_MENU_BAR_TEXT_ICON, SHARED_MENU_BAR_BULK;
+
+        private boolean isSharedMenuBar() {
+            return name().startsWith("SHARED_MENU_BAR_");
+        }
+    }
+
+    @Param({ "10", "100", "1000" })
+    public int itemCount;
+
+    @Param
+    public Overload overload;
+
+    @Setup
+    public void setUp() {
+        UI.setCurrent(new UI());
+    }
+
+    @TearDown
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    @Benchmark
+    public ToolbarLayout build() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setSharedMenuBarMode(overload.isSharedMenuBar());
+
+        if (overload == Overload.BULK || overload == Overload.SHARED_MENU_BAR_BULK) {
+            List<ToolbarItemSpec> specs = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                specs.add(new ToolbarItemSpec(label(i)).withIcon(VaadinIcon.COG::create));
+            }
+            toolbar.addItems(specs);
+            return toolbar;
+        }
+
+        for (int i = 0; i < itemCount; i++) {
+            switch (overload) {
+                case TEXT, SHARED_MENU_BAR_TEXT -> toolbar.addItem(label(i));
+                case TEXT_ICON, SHARED_MENU_BAR_TEXT_ICON -> toolbar.addItem(label(i), VaadinIcon.COG.create());
+                case TEXT_TOOLTIP -> toolbar.addItem(label(i), "Tooltip");
+                case TEXT_LISTENER -> toolbar.addItem(label(i), NO_OP_MENU_ITEM_LISTENER);
+                case TEXT_TOOLTIP_LISTENER -> toolbar.addItem(label(i), "Tooltip", NO_OP_MENU_ITEM_LISTENER);
+                case COMPONENT -> toolbar.addItem(new Span(label(i)));
+                case COMPONENT_LISTENER -> toolbar.addItem(new Span(label(i)), e -> { });
+                case CLICK_NOTIFIER_LISTENER -> toolbar.addItem(new Button(label(i)), e -> { });
+                default -> throw new IllegalStateException("Unexpected overload: " + overload);
+            }
+        }
+        return toolbar;
+    }
+}
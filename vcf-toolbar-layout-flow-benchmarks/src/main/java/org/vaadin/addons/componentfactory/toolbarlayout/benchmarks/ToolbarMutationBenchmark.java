@@ -0,0 +1,114 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout.benchmarks;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vaadin.addons.componentfactory.toolbarlayout.ToolbarLayout;
+
+import java.util.List;
+
+/**
+ * Measures replacing the overflow button and removing items from a toolbar with many items.
+ * <p>
+ * Each invocation changes its toolbar, so it needs a fresh one. Creating it in a {@code Level.Invocation}
+ * setup would distort the timing of these short operations, so a batch of toolbars is created per iteration
+ * instead, and every invocation of the batch takes the next one. The score is the time of a whole batch of
+ * {@value #BATCH_SIZE} invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 5, batchSize = ToolbarMutationBenchmark.BATCH_SIZE)
+@Measurement(iterations = 10, batchSize = ToolbarMutationBenchmark.BATCH_SIZE)
+public class ToolbarMutationBenchmark extends AbstractToolbarBenchmark {
+
+    static final int BATCH_SIZE = 20;
+
+    @Param({ "10", "100", "1000" })
+    public int itemCount;
+
+    private Fixture[] fixtures;
+    private int nextFixture;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        UI.setCurrent(new UI());
+        fixtures = new Fixture[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            fixtures[i] = new Fixture(itemCount);
+        }
+        nextFixture = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        fixtures = null;
+        UI.setCurrent(null);
+    }
+
+    @Benchmark
+    public void replaceOverflowButton() {
+        Fixture fixture = nextFixture();
+        fixture.toolbar.setOverflowButton(fixture.replacementOverflowButton);
+    }
+
+    @Benchmark
+    public void removeItemsOneByOne() {
+        Fixture fixture = nextFixture();
+        for (Component item : fixture.items) {
+            fixture.toolbar.remove(item);
+        }
+    }
+
+    @Benchmark
+    public void removeAllItems() {
+        nextFixture().toolbar.removeAll();
+    }
+
+    private Fixture nextFixture() {
+        if (nextFixture == fixtures.length) {
+            throw new IllegalStateException("More invocations than the batch size of " + BATCH_SIZE);
+        }
+        return fixtures[nextFixture++];
+    }
+
+    /**
+     * A toolbar with its items and overflow buttons, used by a single invocation.
+     */
+    private static class Fixture {
+        private final ToolbarLayout toolbar = new ToolbarLayout();
+        private final List<Component> items;
+        private final Button replacementOverflowButton = new Button("B");
+
+        private Fixture(int itemCount) {
+            for (int i = 0; i < itemCount; i++) {
+                toolbar.addItem(label(i));
+            }
+            items = toolbar.getChildren().toList();
+            toolbar.setOverflowButton(new Button("A"));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout.benchmarks;
+
+import com.vaadin.flow.component.UI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.vaadin.addons.componentfactory.toolbarlayout.ToolbarLayout;
+
+/**
+ * Measures propagating {@code setOpenOnHover} and {@code setDropdownIndicatorShown} to the MenuBar children
+ * of an attached toolbar, including the flush before the client response.
+ */
+@State(Scope.Thread)
+public class ToolbarSettingsBenchmark extends AbstractToolbarBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int itemCount;
+
+    private UI ui;
+    private ToolbarLayout toolbar;
+    private boolean toggle;
+
+    @Setup
+    public void setUp() {
+        ui = new UI();
+        UI.setCurrent(ui);
+        toolbar = new ToolbarLayout();
+        for (int i = 0; i < itemCount; i++) {
+            toolbar.addItem(label(i));
+        }
+        ui.add(toolbar);
+        flush();
+    }
+
+    @TearDown
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    @Benchmark
+    public void toggleOpenOnHover() {
+        toggle = !toggle;
+        toolbar.setOpenOnHover(toggle);
+        flush();
+    }
+
+    @Benchmark
+    public void toggleDropdownIndicatorShown() {
+        toggle = !toggle;
+        toolbar.setDropdownIndicatorShown(toggle);
+        flush();
+    }
+
+    @Benchmark
+    public void toggleBoth() {
+        toggle = !toggle;
+        toolbar.setOpenOnHover(toggle);
+        toolbar.setDropdownIndicatorShown(toggle);
+        flush();
+    }
+
+    private void flush() {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        // drop the collected changes, as there is no client to send them to
+        ui.getInternals().getStateTree().collectChanges(change -> { });
+    }
+}
@@ -56,6 +56,7 @@ public class ToolbarLayoutDemoView extends AbstractDemoView {
         createFixedWidthPrefixDemo();
         createHideIconsDemo();
         createMenuBarApiDemo();
+        createLazySubMenuDemo();
     }
 
     private void createBasicDemo() {
@@ -256,6 +257,32 @@ public class ToolbarLayoutDemoView extends AbstractDemoView {
         addCard("MenuBar-like API", createResizableContainer(toolbarLayout));
     }
 
+    private void createLazySubMenuDemo() {
+        ToolbarLayout toolbarLayout = new ToolbarLayout();
+
+        // the sub menus are only built when they are opened for the first time
+        toolbarLayout.addLazyItem("Reports", VaadinIcon.CHART.create(), reportsSub -> {
+            for (int year = 2020; year <= 2025; year++) {
+                MenuItem yearItem = reportsSub.addItem(String.valueOf(year));
+                int reportYear = year;
+                toolbarLayout.setLazySubMenu(yearItem, yearSub -> {
+                    for (int quarter = 1; quarter <= 4; quarter++) {
+                        String report = "Q" + quarter + " " + reportYear;
+                        yearSub.addItem(report, e -> Notification.show(report + " clicked"));
+                    }
+                }, true);
+            }
+        });
+
+        toolbarLayout.addLazyItem("Help", VaadinIcon.QUESTION_CIRCLE.create(), helpSub -> {
+            helpSub.addItem("Version", e -> Notification.show("App version 2.3.1"));
+            helpSub.addItem("License", e -> Notification.show("Licensed under Apache 2.0"));
+        });
+
+        toolbarLayout.setId("lazy-sub-menu-demo");
+        addCard("Lazy Sub Menus", createResizableContainer(toolbarLayout));
+    }
+
     private void addComponentsToToolbar(ToolbarLayout toolbarLayout) {
         TextField search = new TextField();
         search.setPlaceholder("Search");
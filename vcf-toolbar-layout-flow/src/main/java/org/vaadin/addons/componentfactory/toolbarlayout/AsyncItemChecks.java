@@ -0,0 +1,255 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.function.SerializableSupplier;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Evaluates the enabled and visible checks of the items of a {@link ToolbarLayout} concurrently on virtual
+ * threads, see {@link ToolbarLayout#setItemEnabledCheck(Component, SerializableSupplier)}. The results are
+ * queued in the {@link AsyncItemUpdates} of the toolbar, so all results arriving within one flush interval
+ * are applied in one batch.
+ * <p>
+ * While its enabled check is running, an item is disabled. A check that fails or does not complete within
+ * the timeout counts as {@code false}, as the checks are typically permission checks. A check that times
+ * out, or whose item is evaluated again or removed, is cancelled by interrupting its thread.
+ * </p>
+ * <p>
+ * Each evaluation of an item has a generation. A result is only applied if its generation is still the
+ * current one when the queued results are applied, so the result of an outdated evaluation can never
+ * override the placeholder state or the result of a later one.
+ * </p>
+ */
+@SuppressWarnings("serial")
+class AsyncItemChecks implements Serializable {
+
+    static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ToolbarLayout toolbar;
+    private final AsyncItemUpdates asyncItemUpdates;
+    private final Map<Component, ItemChecks> itemChecks = new LinkedHashMap<>();
+    private Duration timeout = DEFAULT_TIMEOUT;
+
+    // threads waiting for the checks to complete, see awaitRunningChecks
+    private transient Set<Thread> watchers;
+
+    AsyncItemChecks(ToolbarLayout toolbar, AsyncItemUpdates asyncItemUpdates) {
+        this.toolbar = toolbar;
+        this.asyncItemUpdates = asyncItemUpdates;
+    }
+
+    Duration getTimeout() {
+        return timeout;
+    }
+
+    void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    void setEnabledCheck(Component item, SerializableSupplier<Boolean> check) {
+        ItemChecks checks = itemChecks.computeIfAbsent(item, i -> new ItemChecks());
+        checks.enabledCheck = check;
+        checksChanged(item, checks);
+    }
+
+    void setVisibleCheck(Component item, SerializableSupplier<Boolean> check) {
+        ItemChecks checks = itemChecks.computeIfAbsent(item, i -> new ItemChecks());
+        checks.visibleCheck = check;
+        checksChanged(item, checks);
+    }
+
+    /**
+     * Evaluates the checks of all items. The checks of items that are no longer part of the toolbar are
+     * dropped. Must be called with the session locked.
+     */
+    void evaluateAll() {
+        // looking up the items may prune the indexes of the toolbar, which removes the checks of removed items
+        for (Component item : new ArrayList<>(itemChecks.keySet())) {
+            if (!toolbar.containsItem(item)) {
+                remove(item);
+            } else if (itemChecks.containsKey(item)) {
+                evaluate(item, itemChecks.get(item));
+            }
+        }
+    }
+
+    /**
+     * Drops the checks of an item removed from the toolbar. Must be called with the session locked.
+     */
+    void remove(Component item) {
+        ItemChecks checks = itemChecks.remove(item);
+        if (checks != null) {
+            discard(item, checks);
+        }
+    }
+
+    /**
+     * Drops the checks of all items. Must be called with the session locked.
+     */
+    void removeAll() {
+        new ArrayList<>(itemChecks.keySet()).forEach(this::remove);
+    }
+
+    /**
+     * Waits until the threads of the running checks have queued their results. Intended for testing.
+     */
+    void awaitRunningChecks(Duration maxWait) throws InterruptedException {
+        if (watchers != null) {
+            for (Thread watcher : new ArrayList<>(watchers)) {
+                watcher.join(maxWait);
+            }
+        }
+    }
+
+    private void checksChanged(Component item, ItemChecks checks) {
+        if (checks.enabledCheck == null && checks.visibleCheck == null) {
+            itemChecks.remove(item);
+            discard(item, checks);
+        } else if (toolbar.isAttached()) {
+            evaluate(item, checks);
+        }
+    }
+
+    private void discard(Component item, ItemChecks checks) {
+        // outdates the results still being evaluated, and stops the checks producing them
+        checks.generation.incrementAndGet();
+        checks.cancelRunningChecks();
+        asyncItemUpdates.dropCheckResults(item);
+    }
+
+    private void evaluate(Component item, ItemChecks checks) {
+        // results of previous evaluations are outdated, whether they are still running or already queued
+        discard(item, checks);
+        int generation = checks.generation.get();
+
+        if (checks.enabledCheck != null) {
+            // the placeholder state, until the check completes
+            ToolbarItemUpdate.create().withEnabled(false).applyTo(item);
+            evaluate(item, checks, generation, checks.enabledCheck, true);
+        }
+        if (checks.visibleCheck != null) {
+            evaluate(item, checks, generation, checks.visibleCheck, false);
+        }
+    }
+
+    private void evaluate(Component item, ItemChecks checks, int generation, SerializableSupplier<Boolean> check,
+                          boolean enabledCheck) {
+        FutureTask<Boolean> task = new FutureTask<>(() -> Boolean.TRUE.equals(check.get()));
+        checks.runningChecks().add(task);
+        Thread.ofVirtual().name("vcf-toolbar-layout-item-check").start(task);
+
+        long timeoutMillis = timeout.toMillis();
+        Thread watcher = Thread.ofVirtual().name("vcf-toolbar-layout-item-check-watcher").unstarted(() -> {
+            try {
+                boolean result;
+                try {
+                    result = task.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // interrupt the check, so that it does not keep blocking its thread
+                    task.cancel(true);
+                    result = false;
+                } catch (ExecutionException | CancellationException e) {
+                    result = false;
+                } catch (InterruptedException e) {
+                    task.cancel(true);
+                    return;
+                }
+                if (checks.generation.get() == generation) {
+                    ToolbarItemUpdate update = enabledCheck
+                            ? ToolbarItemUpdate.create().withEnabled(result)
+                            : ToolbarItemUpdate.create().withVisible(result);
+                    asyncItemUpdates.enqueueCheckResult(new CheckResult(item, checks, generation, update));
+                }
+            } finally {
+                watchers.remove(Thread.currentThread());
+            }
+        });
+        if (watchers == null) {
+            watchers = ConcurrentHashMap.newKeySet();
+        }
+        watchers.add(watcher);
+        watcher.start();
+    }
+
+    /**
+     * The result of a check, queued until the next flush of the {@link AsyncItemUpdates}.
+     */
+    static final class CheckResult implements Serializable {
+        private final Component item;
+        private final ItemChecks checks;
+        private final int generation;
+        private final ToolbarItemUpdate update;
+
+        private CheckResult(Component item, ItemChecks checks, int generation, ToolbarItemUpdate update) {
+            this.item = item;
+            this.checks = checks;
+            this.generation = generation;
+            this.update = update;
+        }
+
+        Component getItem() {
+            return item;
+        }
+
+        ToolbarItemUpdate getUpdate() {
+            return update;
+        }
+
+        /**
+         * Whether no other evaluation of the item has been started since this result was computed.
+         */
+        boolean isCurrent() {
+            return checks.generation.get() == generation;
+        }
+    }
+
+    private static class ItemChecks implements Serializable {
+        private SerializableSupplier<Boolean> enabledCheck;
+        private SerializableSupplier<Boolean> visibleCheck;
+        private final AtomicInteger generation = new AtomicInteger();
+        // only accessed with the session locked
+        private transient List<FutureTask<Boolean>> runningChecks;
+
+        private List<FutureTask<Boolean>> runningChecks() {
+            if (runningChecks == null) {
+                runningChecks = new ArrayList<>();
+            }
+            return runningChecks;
+        }
+
+        private void cancelRunningChecks() {
+            if (runningChecks != null) {
+                runningChecks.forEach(task -> task.cancel(true));
+                runningChecks.clear();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.server.VaadinSession;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Queues item updates of a {@link ToolbarLayout} from any thread and applies them in one
+ * {@link UI#access(com.vaadin.flow.server.Command)} per flush interval, see
+ * {@link ToolbarLayout#updateItemAsync(Component, ToolbarItemUpdate)}.
+ * <p>
+ * Updates of the same item are merged while queued, so a burst of updates results in one change per item.
+ * Updates queued while the toolbar is detached are applied once it is attached again. The flushes are
+ * scheduled on the {@link AsyncUpdateScheduler} of the service of the session.
+ * </p>
+ */
+@SuppressWarnings("serial")
+class AsyncItemUpdates implements Serializable {
+
+    static final int DEFAULT_FLUSH_INTERVAL = 100;
+
+    private final ToolbarLayout toolbar;
+    private final ConcurrentHashMap<Component, ToolbarItemUpdate> pendingUpdates = new ConcurrentHashMap<>();
+    // results of item checks, only applied if they are still current when flushed, see AsyncItemChecks
+    private final ConcurrentLinkedQueue<AsyncItemChecks.CheckResult> pendingCheckResults =
+            new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean isFlushScheduled = new AtomicBoolean();
+    private volatile int flushInterval = DEFAULT_FLUSH_INTERVAL;
+
+    // captured on attach, as the component tree must not be accessed from background threads. Serialized
+    // with the toolbar, so that a deserialized toolbar that is still attached keeps flushing
+    private volatile UI ui;
+
+    AsyncItemUpdates(ToolbarLayout toolbar) {
+        this.toolbar = toolbar;
+    }
+
+    int getFlushInterval() {
+        return flushInterval;
+    }
+
+    void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Queues an update, merging it into the update already queued for the item. Safe to call from any
+     * thread.
+     */
+    void enqueue(Component item, ToolbarItemUpdate update) {
+        pendingUpdates.merge(item, update, ToolbarItemUpdate::mergedWith);
+        scheduleFlush();
+    }
+
+    /**
+     * Queues the result of an item check. Safe to call from any thread.
+     */
+    void enqueueCheckResult(AsyncItemChecks.CheckResult result) {
+        pendingCheckResults.add(result);
+        scheduleFlush();
+    }
+
+    /**
+     * Drops the queued check results of an item, e.g. as it is evaluated again.
+     */
+    void dropCheckResults(Component item) {
+        pendingCheckResults.removeIf(result -> result.getItem() == item);
+    }
+
+    void attached(UI ui) {
+        this.ui = ui;
+        // a flush scheduled before a detach may have been dropped
+        isFlushScheduled.set(false);
+        if (!pendingUpdates.isEmpty() || !pendingCheckResults.isEmpty()) {
+            scheduleFlush();
+        }
+    }
+
+    void detached() {
+        ui = null;
+    }
+
+    /**
+     * Applies all queued updates. Must be called with the session locked.
+     */
+    void applyPendingUpdates() {
+        isFlushScheduled.set(false);
+        for (Component item : pendingUpdates.keySet()) {
+            ToolbarItemUpdate update = pendingUpdates.remove(item);
+            if (update != null) {
+                toolbar.applyItemUpdate(item, update);
+            }
+        }
+        for (AsyncItemChecks.CheckResult result; (result = pendingCheckResults.poll()) != null; ) {
+            // the item may have been evaluated again since the result was queued
+            if (result.isCurrent()) {
+                toolbar.applyItemUpdate(result.getItem(), result.getUpdate());
+            }
+        }
+    }
+
+    private void scheduleFlush() {
+        UI currentUi = ui;
+        if (currentUi != null && isFlushScheduled.compareAndSet(false, true)) {
+            VaadinSession session = currentUi.getSession();
+            if (session == null || !AsyncUpdateScheduler.get(session.getService()).schedule(this::flush,
+                    flushInterval)) {
+                // the UI is being closed or the service destroyed, so there is nothing to flush to
+                isFlushScheduled.set(false);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // a flush scheduled before serialization does not run anymore, the next update schedules a new one
+        isFlushScheduled.set(false);
+    }
+
+    private void flush() {
+        UI currentUi = ui;
+        if (currentUi == null) {
+            // detached in the meantime, the updates are applied on the next attach
+            isFlushScheduled.set(false);
+            return;
+        }
+        try {
+            currentUi.access(this::applyPendingUpdates);
+        } catch (UIDetachedException e) {
+            isFlushScheduled.set(false);
+        }
+    }
+
+}
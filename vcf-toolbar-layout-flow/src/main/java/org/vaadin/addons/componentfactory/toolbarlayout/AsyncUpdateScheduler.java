@@ -0,0 +1,81 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.server.VaadinService;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the flushes of the {@link AsyncItemUpdates} of all toolbars of a {@link VaadinService} on a single
+ * daemon thread, which only hands them over to {@link com.vaadin.flow.component.UI#access}. The scheduler is
+ * created on first use and shut down when the service is destroyed, so that its thread does not outlive the
+ * application, e.g. when it is redeployed.
+ */
+final class AsyncUpdateScheduler {
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "vcf-toolbar-layout-async-updates");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AsyncUpdateScheduler() {
+    }
+
+    /**
+     * Gets the scheduler of the given service, creating it on first use.
+     *
+     * @param service
+     *            the service of the session the flushes are run for
+     * @return the scheduler of the service
+     */
+    static AsyncUpdateScheduler get(VaadinService service) {
+        return service.getContext().getAttribute(AsyncUpdateScheduler.class, () -> {
+            AsyncUpdateScheduler scheduler = new AsyncUpdateScheduler();
+            service.addServiceDestroyListener(event -> {
+                service.getContext().removeAttribute(AsyncUpdateScheduler.class);
+                scheduler.shutdown();
+            });
+            return scheduler;
+        });
+    }
+
+    /**
+     * Runs the given task after the given delay, unless the scheduler has been shut down in the meantime.
+     *
+     * @return {@code true} if the task has been scheduled
+     */
+    boolean schedule(Runnable task, long delayInMillis) {
+        try {
+            executor.schedule(task, delayInMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            // the service is being destroyed
+            return false;
+        }
+    }
+
+    boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    private void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
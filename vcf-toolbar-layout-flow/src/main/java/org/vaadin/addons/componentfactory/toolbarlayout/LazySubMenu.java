@@ -0,0 +1,186 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.contextmenu.MenuItem;
+import com.vaadin.flow.component.contextmenu.SubMenu;
+import com.vaadin.flow.component.menubar.MenuBar;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.dom.DomEventListener;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.dom.ElementAttachEvent;
+import com.vaadin.flow.dom.ElementAttachListener;
+import com.vaadin.flow.function.SerializableConsumer;
+
+import java.util.Objects;
+
+/**
+ * Builds the sub menu of a {@link MenuItem} when it is opened for the first time, see
+ * {@link ToolbarLayout#setLazySubMenu(MenuItem, SerializableConsumer, boolean)}.
+ * <p>
+ * Until then, the sub menu only contains a disabled placeholder item, so that the item is still rendered
+ * as having a sub menu. The instance is stored as component data of the item.
+ * </p>
+ * <p>
+ * The sub menus of a {@link MenuBar} are rendered by the client without telling the server, so an
+ * {@link OpenForwarder} installed on the {@link MenuBar} dispatches an {@value #OPENED_EVENT} event on the
+ * item element when the sub menu of the item opens.
+ * </p>
+ */
+@SuppressWarnings("serial")
+class LazySubMenu implements DomEventListener {
+
+    static final String PLACEHOLDER_TEXT = "…";
+
+    static final String OPENED_EVENT = "opened-changed";
+    static final String OPENED_FILTER = "event.detail.value";
+
+    /*
+     * Forwards the opening of a sub menu, at any level, to the element of the item it belongs to: the root
+     * sub menu is opened for a button of the menu bar with the item as "item", nested ones for an item
+     * element with the item as "_item". The listener captures the events, as they do not bubble.
+     */
+    private static final String FORWARD_OPENED_SCRIPT = "if (this.__toolbarSubMenuOpened) { return; }"
+            + "this.__toolbarSubMenuOpened = (e) => {"
+            + "  const opener = e.detail.value && e.target.listenOn;"
+            + "  const item = opener && (opener.item || opener._item);"
+            + "  if (item && item.component) {"
+            + "    item.component.dispatchEvent(new CustomEvent('" + OPENED_EVENT + "', { detail: { value: true } }));"
+            + "  }"
+            + "};"
+            + "this.addEventListener('" + OPENED_EVENT + "', this.__toolbarSubMenuOpened, true);";
+
+    private final MenuItem item;
+    private final SerializableConsumer<SubMenu> subMenuProvider;
+    private final boolean cached;
+
+    private boolean populated;
+    private DomListenerRegistration openListener;
+
+    private LazySubMenu(MenuItem item, SerializableConsumer<SubMenu> subMenuProvider, boolean cached) {
+        this.item = item;
+        this.subMenuProvider = subMenuProvider;
+        this.cached = cached;
+    }
+
+    /**
+     * Installs a lazy sub menu on the given item of the given {@link MenuBar}, replacing any previously
+     * installed one and any existing sub menu content.
+     */
+    static LazySubMenu install(MenuBar menuBar, MenuItem item, SerializableConsumer<SubMenu> subMenuProvider,
+                               boolean cached) {
+        Objects.requireNonNull(item, "Item must not be null");
+        Objects.requireNonNull(subMenuProvider, "Sub menu provider must not be null");
+        OpenForwarder.install(menuBar);
+
+        LazySubMenu previous = get(item);
+        if (previous != null) {
+            previous.stopListening();
+        }
+
+        LazySubMenu lazySubMenu = new LazySubMenu(item, subMenuProvider, cached);
+        ComponentUtil.setData(item, LazySubMenu.class, lazySubMenu);
+        lazySubMenu.reset();
+        return lazySubMenu;
+    }
+
+    static LazySubMenu get(MenuItem item) {
+        return ComponentUtil.getData(item, LazySubMenu.class);
+    }
+
+    boolean isPopulated() {
+        return populated;
+    }
+
+    /**
+     * Builds the sub menu, unless it is cached and has been built already.
+     */
+    void populate() {
+        if (populated && cached) {
+            return;
+        }
+
+        SubMenu subMenu = item.getSubMenu();
+        subMenu.removeAll();
+        subMenuProvider.accept(subMenu);
+        populated = true;
+
+        // a cached sub menu does not need to react to further openings until it is evicted
+        if (cached) {
+            stopListening();
+        }
+    }
+
+    /**
+     * Drops the built sub menu, so that it is built again on the next opening.
+     */
+    void reset() {
+        SubMenu subMenu = item.getSubMenu();
+        subMenu.removeAll();
+        subMenu.addItem(PLACEHOLDER_TEXT).setEnabled(false);
+        populated = false;
+
+        if (openListener == null) {
+            openListener = item.getElement().addEventListener(OPENED_EVENT, this).setFilter(OPENED_FILTER);
+        }
+    }
+
+    @Override
+    public void handleEvent(DomEvent event) {
+        populate();
+    }
+
+    private void stopListening() {
+        if (openListener != null) {
+            openListener.remove();
+            openListener = null;
+        }
+    }
+
+    /**
+     * Installs the script forwarding the opening of sub menus on a {@link MenuBar} element, again whenever
+     * the element is attached, as a new client-side element is created then. Installed once per
+     * {@link MenuBar} and stored as its component data.
+     */
+    private static class OpenForwarder implements ElementAttachListener {
+        private final MenuBar menuBar;
+
+        private OpenForwarder(MenuBar menuBar) {
+            this.menuBar = menuBar;
+        }
+
+        static void install(MenuBar menuBar) {
+            if (ComponentUtil.getData(menuBar, OpenForwarder.class) != null) {
+                return;
+            }
+            OpenForwarder forwarder = new OpenForwarder(menuBar);
+            ComponentUtil.setData(menuBar, OpenForwarder.class, forwarder);
+            menuBar.getElement().addAttachListener(forwarder);
+            if (menuBar.getElement().getNode().isAttached()) {
+                forwarder.addClientListener();
+            }
+        }
+
+        @Override
+        public void onAttach(ElementAttachEvent event) {
+            addClientListener();
+        }
+
+        private void addClientListener() {
+            menuBar.getElement().executeJs(FORWARD_OPENED_SCRIPT);
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Defines how clicks on toolbar items are sent to the server, to avoid duplicate round trips caused by
+ * double clicks or impatient users. Set for all items via {@link ToolbarLayout#setClickOptions(ToolbarClickOptions)}
+ * or for single items via the {@code addItem} overloads taking click options and
+ * {@link ToolbarItemSpec#withClickOptions(ToolbarClickOptions)}.
+ * <p>
+ * Instances are immutable, the {@code with} methods return a modified copy. Debounce and throttle are
+ * alternatives, only one of them can be set.
+ * </p>
+ */
+@SuppressWarnings("serial")
+public final class ToolbarClickOptions implements Serializable {
+
+    private static final ToolbarClickOptions DEFAULTS = new ToolbarClickOptions(0, 0, false, false);
+
+    private final int debounce;
+    private final int throttle;
+    private final boolean disableOnClick;
+    private final boolean minimalEventData;
+
+    private ToolbarClickOptions(int debounce, int throttle, boolean disableOnClick, boolean minimalEventData) {
+        if (debounce < 0 || throttle < 0) {
+            throw new IllegalArgumentException("Debounce and throttle must not be negative");
+        }
+        if (debounce > 0 && throttle > 0) {
+            throw new IllegalArgumentException("Debounce and throttle cannot be combined");
+        }
+        this.debounce = debounce;
+        this.throttle = throttle;
+        this.disableOnClick = disableOnClick;
+        this.minimalEventData = minimalEventData;
+    }
+
+    /**
+     * Gets the default options: every click is sent to the server right away, with the full event data.
+     *
+     * @return the default options
+     */
+    public static ToolbarClickOptions defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Sends the first click right away and ignores further clicks until there has been no click for the
+     * given time.
+     *
+     * @param debounce
+     *            the debounce window in milliseconds, or {@code 0} to send every click
+     * @return a copy of these options with the given debounce window
+     * @throws IllegalArgumentException
+     *             if the debounce window is positive and these options have a throttle interval
+     */
+    public ToolbarClickOptions withDebounce(int debounce) {
+        return new ToolbarClickOptions(debounce, throttle, disableOnClick, minimalEventData);
+    }
+
+    /**
+     * Sends at most one click per given interval.
+     *
+     * @param throttle
+     *            the throttle interval in milliseconds, or {@code 0} to send every click
+     * @return a copy of these options with the given throttle interval
+     * @throws IllegalArgumentException
+     *             if the throttle interval is positive and these options have a debounce window
+     */
+    public ToolbarClickOptions withThrottle(int throttle) {
+        return new ToolbarClickOptions(debounce, throttle, disableOnClick, minimalEventData);
+    }
+
+    /**
+     * Disables the item in the browser when it is clicked, until the server has handled the click.
+     *
+     * @param disableOnClick
+     *            {@code true} to disable the item until the server responds
+     * @return a copy of these options with the given setting
+     */
+    public ToolbarClickOptions withDisableOnClick(boolean disableOnClick) {
+        return new ToolbarClickOptions(debounce, throttle, disableOnClick, minimalEventData);
+    }
+
+    /**
+     * Sends clicks without any event data, like the mouse position or the pressed modifier keys. The
+     * {@link com.vaadin.flow.component.ClickEvent} passed to the listener then only has default values for
+     * these details.
+     *
+     * @param minimalEventData
+     *            {@code true} to send clicks without event data
+     * @return a copy of these options with the given setting
+     */
+    public ToolbarClickOptions withMinimalEventData(boolean minimalEventData) {
+        return new ToolbarClickOptions(debounce, throttle, disableOnClick, minimalEventData);
+    }
+
+    public int getDebounce() {
+        return debounce;
+    }
+
+    public int getThrottle() {
+        return throttle;
+    }
+
+    public boolean isDisableOnClick() {
+        return disableOnClick;
+    }
+
+    public boolean isMinimalEventData() {
+        return minimalEventData;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ToolbarClickOptions other)) {
+            return false;
+        }
+        return debounce == other.debounce && throttle == other.throttle
+                && disableOnClick == other.disableOnClick && minimalEventData == other.minimalEventData;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(debounce, throttle, disableOnClick, minimalEventData);
+    }
+
+    @Override
+    public String toString() {
+        return "ToolbarClickOptions[debounce=" + debounce + ", throttle=" + throttle + ", disableOnClick="
+                + disableOnClick + ", minimalEventData=" + minimalEventData + "]";
+    }
+
+}
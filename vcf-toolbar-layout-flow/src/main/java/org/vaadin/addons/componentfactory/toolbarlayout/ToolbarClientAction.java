@@ -0,0 +1,124 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.component.Component;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * An action run in the browser when a toolbar item is clicked, without a round trip to the server. Bound
+ * to an item via {@link ToolbarLayout#setClientAction(Component, ToolbarClientAction)}.
+ * <p>
+ * Besides the predefined actions, any global JavaScript function can be called via {@link #function(String)}.
+ * </p>
+ */
+@SuppressWarnings("serial")
+public final class ToolbarClientAction implements Serializable {
+
+    // function body run on click, with the clicked item as "item", the event as "event" and the
+    // argument of the action as "arg", which is null for a target component that is not attached
+    private final String script;
+    private final String textArgument;
+    private final Component targetArgument;
+
+    private ToolbarClientAction(String script, String textArgument, Component targetArgument) {
+        this.script = script;
+        this.textArgument = textArgument;
+        this.targetArgument = targetArgument;
+    }
+
+    /**
+     * Calls a global JavaScript function with the clicked item element and the click event as arguments.
+     *
+     * @param functionName
+     *            the name of the function, may be a dotted path like {@code "myApp.actions.copy"}
+     * @return the action
+     */
+    public static ToolbarClientAction function(String functionName) {
+        Objects.requireNonNull(functionName, "Function name must not be null");
+        return new ToolbarClientAction("const fn = arg.split('.').reduce((o, key) => o && o[key], window);"
+                + "if (typeof fn === 'function') { fn(item, event); }", functionName, null);
+    }
+
+    /**
+     * Opens the print dialog of the browser.
+     *
+     * @return the action
+     */
+    public static ToolbarClientAction print() {
+        return new ToolbarClientAction("window.print();", null, null);
+    }
+
+    /**
+     * Scrolls the page to the top.
+     *
+     * @return the action
+     */
+    public static ToolbarClientAction scrollToTop() {
+        return new ToolbarClientAction("(document.scrollingElement || document.documentElement)"
+                + ".scrollTo({ top: 0, behavior: 'smooth' });", null, null);
+    }
+
+    /**
+     * Scrolls the given scroll container to the top. Does nothing while the container is not attached.
+     *
+     * @param scrollContainer
+     *            the component to scroll, not {@code null}
+     * @return the action
+     */
+    public static ToolbarClientAction scrollToTop(Component scrollContainer) {
+        Objects.requireNonNull(scrollContainer, "Scroll container must not be null");
+        return new ToolbarClientAction("if (arg) { arg.scrollTo({ top: 0, behavior: 'smooth' }); }", null, scrollContainer);
+    }
+
+    /**
+     * Copies the given text to the clipboard.
+     *
+     * @param text
+     *            the text to copy, not {@code null}
+     * @return the action
+     */
+    public static ToolbarClientAction copyToClipboard(String text) {
+        Objects.requireNonNull(text, "Text must not be null");
+        return new ToolbarClientAction("navigator.clipboard && navigator.clipboard.writeText(arg);", text, null);
+    }
+
+    /**
+     * Shows or hides the given component, e.g. a side panel, by toggling its {@code hidden} attribute. The
+     * server is not notified, so {@link Component#isVisible()} does not reflect the toggled state. Does
+     * nothing while the component is not attached.
+     *
+     * @param target
+     *            the component to show or hide, not {@code null}
+     * @return the action
+     */
+    public static ToolbarClientAction toggleVisibility(Component target) {
+        Objects.requireNonNull(target, "Target must not be null");
+        return new ToolbarClientAction("if (arg) { arg.hidden = !arg.hidden; }", null, target);
+    }
+
+    String getScript() {
+        return script;
+    }
+
+    /**
+     * Gets the argument passed to the script: the text argument, or the element of the target component.
+     */
+    Serializable getArgument() {
+        return targetArgument != null ? targetArgument.getElement() : textArgument;
+    }
+
+}
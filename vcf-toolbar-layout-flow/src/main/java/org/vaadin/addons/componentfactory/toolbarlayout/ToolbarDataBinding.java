@@ -0,0 +1,250 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.data.provider.DataChangeEvent;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.data.provider.Query;
+import com.vaadin.flow.function.SerializableBiConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.shared.Registration;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Binds the items of a {@link DataProvider} to components of a {@link ToolbarLayout}. Created via
+ * {@link ToolbarLayout#setItems(DataProvider, SerializableFunction)}.
+ * <p>
+ * Refreshing diffs the fetched items against the currently rendered ones by their
+ * {@link DataProvider#getId(Object) id}: components are only created for new items, removed for items that
+ * are gone and moved for items whose position changed. Components of items that are still present are
+ * updated if the data provider returned another instance for them, or if the item was refreshed explicitly
+ * via {@link #refreshItem(Object)}.
+ * </p>
+ *
+ * @param <T> the item type
+ */
+@SuppressWarnings("serial")
+public class ToolbarDataBinding<T> implements Serializable {
+
+    private final ToolbarLayout toolbar;
+    private final DataProvider<T, ?> dataProvider;
+    private final SerializableFunction<T, ? extends Component> renderer;
+    private SerializableBiConsumer<Component, T> itemUpdater;
+
+    // rendered items by their data provider id, in toolbar order
+    private LinkedHashMap<Object, RenderedItem<T>> renderedItems = new LinkedHashMap<>();
+
+    private Registration attachRegistration;
+    private Registration detachRegistration;
+    private Registration dataProviderRegistration;
+
+    ToolbarDataBinding(ToolbarLayout toolbar, DataProvider<T, ?> dataProvider,
+                       SerializableFunction<T, ? extends Component> renderer) {
+        this.toolbar = toolbar;
+        this.dataProvider = Objects.requireNonNull(dataProvider, "Data provider must not be null");
+        this.renderer = Objects.requireNonNull(renderer, "Renderer must not be null");
+
+        // like other data bound components, only listen to the data provider while attached
+        attachRegistration = toolbar.addAttachListener(e -> {
+            listenToDataProvider();
+            refreshAll();
+        });
+        detachRegistration = toolbar.addDetachListener(e -> stopListeningToDataProvider());
+        if (toolbar.isAttached()) {
+            listenToDataProvider();
+        }
+    }
+
+    /**
+     * Sets a callback updating the component of an item in place when the item changed. Without an
+     * updater, the component of a changed item is replaced by a newly rendered one.
+     *
+     * @param itemUpdater the updater, or {@code null} to re-render changed items
+     * @return this binding
+     */
+    public ToolbarDataBinding<T> setItemUpdater(SerializableBiConsumer<Component, T> itemUpdater) {
+        this.itemUpdater = itemUpdater;
+        return this;
+    }
+
+    /**
+     * Gets the data provider of this binding.
+     *
+     * @return the data provider
+     */
+    public DataProvider<T, ?> getDataProvider() {
+        return dataProvider;
+    }
+
+    /**
+     * Gets the component currently rendered for the given item.
+     *
+     * @param item the item
+     * @return the component, or an empty optional if the item is not rendered
+     */
+    public Optional<Component> getComponent(T item) {
+        RenderedItem<T> rendered = renderedItems.get(dataProvider.getId(item));
+        return rendered != null ? Optional.of(rendered.component) : Optional.empty();
+    }
+
+    /**
+     * Fetches all items from the data provider and applies the differences to the toolbar.
+     *
+     * @throws IllegalArgumentException
+     *             if the data provider returns several items with the same id, the toolbar is left unchanged
+     *             then
+     */
+    public void refreshAll() {
+        // check the ids before touching the toolbar, a duplicate would orphan the component of an item
+        LinkedHashMap<Object, T> fetched = new LinkedHashMap<>();
+        fetchAll(dataProvider).forEach(item -> {
+            Object id = dataProvider.getId(item);
+            if (fetched.putIfAbsent(id, item) != null) {
+                throw new IllegalArgumentException("Data provider returned several items with the id " + id);
+            }
+        });
+
+        LinkedHashMap<Object, RenderedItem<T>> previous = renderedItems;
+        LinkedHashMap<Object, RenderedItem<T>> next = new LinkedHashMap<>();
+
+        fetched.forEach((id, item) -> {
+            RenderedItem<T> rendered = previous.remove(id);
+            if (rendered == null) {
+                rendered = new RenderedItem<>(item, renderer.apply(item));
+            } else if (rendered.item != item) {
+                update(rendered, item);
+            }
+            next.put(id, rendered);
+        });
+
+        // whatever is left has been removed from the data provider
+        for (RenderedItem<T> removed : previous.values()) {
+            toolbar.remove(removed.component);
+        }
+        renderedItems = next;
+
+        arrangeComponents();
+    }
+
+    /**
+     * Updates the component of a single item, e.g. after the item has been modified.
+     *
+     * @param item the item to refresh
+     */
+    public void refreshItem(T item) {
+        RenderedItem<T> rendered = renderedItems.get(dataProvider.getId(item));
+        if (rendered != null) {
+            update(rendered, item);
+        }
+    }
+
+    /**
+     * Removes all components of this binding from the toolbar and stops listening to the data provider.
+     */
+    void remove() {
+        stopListeningToDataProvider();
+        attachRegistration.remove();
+        detachRegistration.remove();
+
+        renderedItems.values().forEach(rendered -> toolbar.remove(rendered.component));
+        renderedItems.clear();
+    }
+
+    private void update(RenderedItem<T> rendered, T item) {
+        rendered.item = item;
+        if (itemUpdater != null) {
+            itemUpdater.accept(rendered.component, item);
+            toolbar.refreshSearchIndex(rendered.component);
+        } else {
+            Component component = renderer.apply(item);
+            toolbar.replace(rendered.component, component);
+            rendered.component = component;
+        }
+    }
+
+    /**
+     * Moves the rendered components into item order, as one block starting at the position of the first
+     * bound component already in the toolbar. Components that are already in place are not touched.
+     */
+    private void arrangeComponents() {
+        List<Component> components = new ArrayList<>(renderedItems.size());
+        for (RenderedItem<T> rendered : renderedItems.values()) {
+            components.add(rendered.component);
+        }
+
+        // find the first bound component in a single pass over the children, instead of looking up each one
+        Set<Component> bound = new HashSet<>(components);
+        int start = toolbar.getComponentCount();
+        int position = 0;
+        for (Iterator<Component> it = toolbar.getChildren().iterator(); it.hasNext(); position++) {
+            if (bound.contains(it.next())) {
+                start = position;
+                break;
+            }
+        }
+
+        for (int i = 0; i < components.size(); i++) {
+            int index = start + i;
+            Component component = components.get(i);
+            if (index >= toolbar.getComponentCount() || toolbar.getComponentAt(index) != component) {
+                toolbar.addComponentAtIndex(Math.min(index, toolbar.getComponentCount()), component);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void listenToDataProvider() {
+        stopListeningToDataProvider();
+        dataProviderRegistration = dataProvider.addDataProviderListener(event -> {
+            if (event instanceof DataChangeEvent.DataRefreshEvent<?> refreshEvent) {
+                refreshItem((T) refreshEvent.getItem());
+            } else {
+                refreshAll();
+            }
+        });
+    }
+
+    private void stopListeningToDataProvider() {
+        if (dataProviderRegistration != null) {
+            dataProviderRegistration.remove();
+            dataProviderRegistration = null;
+        }
+    }
+
+    private static <T, F> Stream<T> fetchAll(DataProvider<T, F> dataProvider) {
+        return dataProvider.fetch(new Query<>());
+    }
+
+    private static class RenderedItem<T> implements Serializable {
+        private T item;
+        private Component component;
+
+        private RenderedItem(T item, Component component) {
+            this.item = item;
+            this.component = component;
+        }
+    }
+
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.contextmenu.MenuItem;
+import com.vaadin.flow.function.SerializableBiConsumer;
+import com.vaadin.flow.function.SerializableSupplier;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable description of a toolbar: its items (text, icon, tooltip, order) and settings (variants,
+ * collapse order, MenuBar settings).
+ * <p>
+ * A definition is thread-safe and meant to be built once per application, e.g. stored in a static field
+ * or a {@link ToolbarDefinitionCache}, and shared by all sessions. Each UI then creates its own
+ * {@link ToolbarLayout} from it via {@link #createToolbar(SerializableBiConsumer)}, which only allocates
+ * the components and the per-session state such as click listeners and enabled flags.
+ * </p>
+ */
+@SuppressWarnings("serial")
+public final class ToolbarDefinition implements Serializable {
+
+    private final List<ItemDefinition> items;
+    private final Set<ToolbarLayoutVariant> variants;
+    private final boolean reverseCollapseOrder;
+    private final boolean openOnHover;
+    private final boolean dropdownIndicatorShown;
+    private final boolean sharedMenuBarMode;
+
+    private ToolbarDefinition(Builder builder) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(builder.items));
+        this.variants = Collections.unmodifiableSet(builder.variants.isEmpty()
+                ? EnumSet.noneOf(ToolbarLayoutVariant.class)
+                : EnumSet.copyOf(builder.variants));
+        this.reverseCollapseOrder = builder.reverseCollapseOrder;
+        this.openOnHover = builder.openOnHover;
+        this.dropdownIndicatorShown = builder.dropdownIndicatorShown;
+        this.sharedMenuBarMode = builder.sharedMenuBarMode;
+    }
+
+    /**
+     * Creates a builder for a new definition.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the item definitions, in toolbar order.
+     *
+     * @return an unmodifiable list of the item definitions
+     */
+    public List<ItemDefinition> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets the theme variants applied to created toolbars.
+     *
+     * @return an unmodifiable set of the theme variants
+     */
+    public Set<ToolbarLayoutVariant> getVariants() {
+        return variants;
+    }
+
+    public boolean isReverseCollapseOrder() {
+        return reverseCollapseOrder;
+    }
+
+    public boolean isOpenOnHover() {
+        return openOnHover;
+    }
+
+    public boolean isDropdownIndicatorShown() {
+        return dropdownIndicatorShown;
+    }
+
+    public boolean isSharedMenuBarMode() {
+        return sharedMenuBarMode;
+    }
+
+    /**
+     * Creates a new toolbar from this definition.
+     *
+     * @return the new toolbar
+     */
+    public ToolbarLayout createToolbar() {
+        return createToolbar(null);
+    }
+
+    /**
+     * Creates a new toolbar from this definition, letting the caller add the per-session state of each
+     * item, such as click listeners or the enabled state.
+     *
+     * @param itemInitializer
+     *            called with the id and the created {@link MenuItem} of every item, or {@code null}
+     * @return the new toolbar
+     */
+    public ToolbarLayout createToolbar(SerializableBiConsumer<String, MenuItem> itemInitializer) {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setSharedMenuBarMode(sharedMenuBarMode);
+        toolbar.setOpenOnHover(openOnHover);
+        toolbar.setDropdownIndicatorShown(dropdownIndicatorShown);
+        if (reverseCollapseOrder) {
+            toolbar.setReverseCollapseOrder(true);
+        }
+        if (!variants.isEmpty()) {
+            toolbar.addThemeVariants(variants.toArray(ToolbarLayoutVariant[]::new));
+        }
+
+        List<ToolbarItemSpec> specs = new ArrayList<>(items.size());
+        for (ItemDefinition item : items) {
+            specs.add(new ToolbarItemSpec(item.getText())
+                    .withIcon(item.getIconFactory())
+                    .withTooltipText(item.getTooltipText()));
+        }
+        List<MenuItem> menuItems = toolbar.addItems(specs);
+
+        if (itemInitializer != null) {
+            for (int i = 0; i < menuItems.size(); i++) {
+                itemInitializer.accept(items.get(i).getId(), menuItems.get(i));
+            }
+        }
+        return toolbar;
+    }
+
+    /**
+     * The immutable description of a single toolbar item.
+     */
+    public static final class ItemDefinition implements Serializable {
+
+        private final String id;
+        private final String text;
+        private final SerializableSupplier<? extends Component> iconFactory;
+        private final String tooltipText;
+
+        private ItemDefinition(String id, String text, SerializableSupplier<? extends Component> iconFactory,
+                               String tooltipText) {
+            this.id = id;
+            this.text = text;
+            this.iconFactory = iconFactory;
+            this.tooltipText = tooltipText;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public SerializableSupplier<? extends Component> getIconFactory() {
+            return iconFactory;
+        }
+
+        public String getTooltipText() {
+            return tooltipText;
+        }
+    }
+
+    /**
+     * Builder for {@link ToolbarDefinition}. Not thread-safe, build the definition in one thread and then
+     * share the built definition.
+     */
+    public static final class Builder implements Serializable {
+
+        private final List<ItemDefinition> items = new ArrayList<>();
+        private final Set<String> itemIds = new HashSet<>();
+        private final Set<ToolbarLayoutVariant> variants = new HashSet<>();
+        private boolean reverseCollapseOrder = false;
+        private boolean openOnHover = false;
+        private boolean dropdownIndicatorShown = true;
+        private boolean sharedMenuBarMode = false;
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an item with the given id and text.
+         *
+         * @param id
+         *            the id identifying the item within the definition, not {@code null}
+         * @param text
+         *            the text content of the item, not {@code null}
+         * @return this builder
+         */
+        public Builder addItem(String id, String text) {
+            return addItem(id, text, null, null);
+        }
+
+        /**
+         * Adds an item with the given id, text, icon and tooltip.
+         *
+         * @param id
+         *            the id identifying the item within the definition, not {@code null}
+         * @param text
+         *            the text content of the item, not {@code null}
+         * @param iconFactory
+         *            creates the icon of the item, e.g. {@code VaadinIcon.COG::create}, or {@code null}
+         * @param tooltipText
+         *            the tooltip text of the item, or {@code null}
+         * @return this builder
+         */
+        public Builder addItem(String id, String text, SerializableSupplier<? extends Component> iconFactory,
+                               String tooltipText) {
+            Objects.requireNonNull(id, "Id must not be null");
+            Objects.requireNonNull(text, "Text must not be null");
+            if (!itemIds.add(id)) {
+                throw new IllegalArgumentException("Duplicate item id: " + id);
+            }
+            items.add(new ItemDefinition(id, text, iconFactory, tooltipText));
+            return this;
+        }
+
+        public Builder withVariants(ToolbarLayoutVariant... variants) {
+            Collections.addAll(this.variants, variants);
+            return this;
+        }
+
+        public Builder withReverseCollapseOrder(boolean reverseCollapseOrder) {
+            this.reverseCollapseOrder = reverseCollapseOrder;
+            return this;
+        }
+
+        public Builder withOpenOnHover(boolean openOnHover) {
+            this.openOnHover = openOnHover;
+            return this;
+        }
+
+        public Builder withDropdownIndicatorShown(boolean dropdownIndicatorShown) {
+            this.dropdownIndicatorShown = dropdownIndicatorShown;
+            return this;
+        }
+
+        public Builder withSharedMenuBarMode(boolean sharedMenuBarMode) {
+            this.sharedMenuBarMode = sharedMenuBarMode;
+            return this;
+        }
+
+        /**
+         * Builds the immutable definition.
+         *
+         * @return the new definition
+         */
+        public ToolbarDefinition build() {
+            return new ToolbarDefinition(this);
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.function.SerializableFunction;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded, thread-safe cache of {@link ToolbarDefinition}s, e.g. one per locale or user role, to be
+ * shared by all sessions of an application. When the cache is full, the least recently used definition is
+ * evicted.
+ *
+ * @param <K> the key type, e.g. a {@link java.util.Locale} or a record of locale and role
+ */
+@SuppressWarnings("serial")
+public class ToolbarDefinitionCache<K> implements Serializable {
+
+    private final int maxSize;
+    private final SerializableFunction<K, ToolbarDefinition> definitionFactory;
+    private final Map<K, ToolbarDefinition> definitions;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize
+     *            the maximum number of cached definitions, at least 1
+     * @param definitionFactory
+     *            builds the definition for a key that is not cached, not {@code null}
+     */
+    public ToolbarDefinitionCache(int maxSize, SerializableFunction<K, ToolbarDefinition> definitionFactory) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.definitionFactory = Objects.requireNonNull(definitionFactory, "Definition factory must not be null");
+        this.definitions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, ToolbarDefinition> eldest) {
+                return size() > ToolbarDefinitionCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the definition for the given key, building and caching it if necessary.
+     *
+     * @param key
+     *            the key, not {@code null}
+     * @return the definition for the key
+     */
+    public ToolbarDefinition get(K key) {
+        Objects.requireNonNull(key, "Key must not be null");
+        synchronized (definitions) {
+            return definitions.computeIfAbsent(key, definitionFactory);
+        }
+    }
+
+    /**
+     * Removes the definition for the given key, so that it is built again on the next access.
+     *
+     * @param key
+     *            the key
+     */
+    public void invalidate(K key) {
+        synchronized (definitions) {
+            definitions.remove(key);
+        }
+    }
+
+    /**
+     * Removes all cached definitions.
+     */
+    public void invalidateAll() {
+        synchronized (definitions) {
+            definitions.clear();
+        }
+    }
+
+    /**
+     * Gets the number of cached definitions.
+     *
+     * @return the number of cached definitions
+     */
+    public int size() {
+        synchronized (definitions) {
+            return definitions.size();
+        }
+    }
+
+}
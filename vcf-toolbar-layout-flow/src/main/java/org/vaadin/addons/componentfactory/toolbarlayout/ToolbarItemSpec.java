@@ -0,0 +1,146 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.component.ClickEvent;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEventListener;
+import com.vaadin.flow.component.contextmenu.MenuItem;
+import com.vaadin.flow.function.SerializableSupplier;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Describes a single item to be added to a {@link ToolbarLayout} via {@link ToolbarLayout#addItems(java.util.Collection)}.
+ * <p>
+ * The icon is provided as a factory, as every added item needs its own icon component.
+ * </p>
+ */
+@SuppressWarnings("serial")
+public class ToolbarItemSpec implements Serializable {
+
+    private final String text;
+    private SerializableSupplier<? extends Component> iconFactory;
+    private String tooltipText;
+    private ComponentEventListener<ClickEvent<MenuItem>> clickListener;
+    private ToolbarClickOptions clickOptions;
+    private boolean enabled = true;
+    private boolean visible = true;
+
+    /**
+     * Creates a new item spec with the given text.
+     *
+     * @param text the text content of the item
+     */
+    public ToolbarItemSpec(String text) {
+        this.text = Objects.requireNonNull(text, "Text must not be null");
+    }
+
+    /**
+     * Sets the factory creating the icon of the item, e.g. {@code VaadinIcon.COG::create}.
+     *
+     * @param iconFactory the icon factory, or {@code null} for an item without icon
+     * @return this spec
+     */
+    public ToolbarItemSpec withIcon(SerializableSupplier<? extends Component> iconFactory) {
+        this.iconFactory = iconFactory;
+        return this;
+    }
+
+    /**
+     * Sets the tooltip text of the item.
+     *
+     * @param tooltipText the tooltip text, or {@code null} for no tooltip
+     * @return this spec
+     */
+    public ToolbarItemSpec withTooltipText(String tooltipText) {
+        this.tooltipText = tooltipText;
+        return this;
+    }
+
+    /**
+     * Sets the handler for clicking the item.
+     *
+     * @param clickListener the click listener, or {@code null} to not add a listener
+     * @return this spec
+     */
+    public ToolbarItemSpec withClickListener(ComponentEventListener<ClickEvent<MenuItem>> clickListener) {
+        this.clickListener = clickListener;
+        return this;
+    }
+
+    /**
+     * Sets how clicks on the item are sent to the server, instead of the toolbar-wide
+     * {@link ToolbarLayout#setClickOptions(ToolbarClickOptions) click options}.
+     *
+     * @param clickOptions the click options, or {@code null} to use the toolbar-wide ones
+     * @return this spec
+     */
+    public ToolbarItemSpec withClickOptions(ToolbarClickOptions clickOptions) {
+        this.clickOptions = clickOptions;
+        return this;
+    }
+
+    /**
+     * Sets whether the item is enabled. Items are enabled by default.
+     *
+     * @param enabled {@code true} to enable the item, {@code false} to disable it
+     * @return this spec
+     */
+    public ToolbarItemSpec withEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    /**
+     * Sets whether the item is visible. Items are visible by default.
+     *
+     * @param visible {@code true} to show the item, {@code false} to hide it
+     * @return this spec
+     */
+    public ToolbarItemSpec withVisible(boolean visible) {
+        this.visible = visible;
+        return this;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public SerializableSupplier<? extends Component> getIconFactory() {
+        return iconFactory;
+    }
+
+    public String getTooltipText() {
+        return tooltipText;
+    }
+
+    public ComponentEventListener<ClickEvent<MenuItem>> getClickListener() {
+        return clickListener;
+    }
+
+    public ToolbarClickOptions getClickOptions() {
+        return clickOptions;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.HasEnabled;
+import com.vaadin.flow.component.HasText;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.contextmenu.MenuItem;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A change of the state of a toolbar item, queued from any thread via
+ * {@link ToolbarLayout#updateItemAsync(Component, ToolbarItemUpdate)}. Only the properties set on the update
+ * are changed; when several updates are queued for the same item before they are applied, they are merged
+ * property by property, the latest value winning.
+ * <p>
+ * Instances are immutable, the {@code with} methods return a modified copy, so updates can be safely shared
+ * between threads.
+ * </p>
+ */
+@SuppressWarnings("serial")
+public final class ToolbarItemUpdate implements Serializable {
+
+    /**
+     * The attribute holding the badge of an item, e.g. to show it via {@code attr(data-badge)} in CSS.
+     */
+    public static final String BADGE_ATTRIBUTE = "data-badge";
+
+    private static final ToolbarItemUpdate EMPTY = new ToolbarItemUpdate(null, null, null, null, false);
+
+    private final Boolean enabled;
+    private final Boolean visible;
+    private final String text;
+    private final String badge;
+    private final boolean badgeSet;
+
+    private ToolbarItemUpdate(Boolean enabled, Boolean visible, String text, String badge, boolean badgeSet) {
+        this.enabled = enabled;
+        this.visible = visible;
+        this.text = text;
+        this.badge = badge;
+        this.badgeSet = badgeSet;
+    }
+
+    /**
+     * Gets an update that does not change anything, to add changes to via the {@code with} methods.
+     *
+     * @return the empty update
+     */
+    public static ToolbarItemUpdate create() {
+        return EMPTY;
+    }
+
+    /**
+     * Sets whether the item is enabled.
+     *
+     * @param enabled {@code true} to enable the item, {@code false} to disable it
+     * @return a copy of this update that also changes the enabled state
+     */
+    public ToolbarItemUpdate withEnabled(boolean enabled) {
+        return new ToolbarItemUpdate(enabled, visible, text, badge, badgeSet);
+    }
+
+    /**
+     * Sets whether the item is visible.
+     *
+     * @param visible {@code true} to show the item, {@code false} to hide it
+     * @return a copy of this update that also changes the visibility
+     */
+    public ToolbarItemUpdate withVisible(boolean visible) {
+        return new ToolbarItemUpdate(enabled, visible, text, badge, badgeSet);
+    }
+
+    /**
+     * Sets the text of the item. For items with an icon created via
+     * {@link ToolbarLayout#addItem(String, Component)}, the text next to the icon is changed.
+     *
+     * @param text the text, not {@code null}
+     * @return a copy of this update that also changes the text
+     */
+    public ToolbarItemUpdate withText(String text) {
+        Objects.requireNonNull(text, "Text must not be null");
+        return new ToolbarItemUpdate(enabled, visible, text, badge, badgeSet);
+    }
+
+    /**
+     * Sets the badge of the item, e.g. a count of unread messages, as {@value #BADGE_ATTRIBUTE} attribute.
+     *
+     * @param badge the badge, or {@code null} to remove it
+     * @return a copy of this update that also changes the badge
+     */
+    public ToolbarItemUpdate withBadge(String badge) {
+        return new ToolbarItemUpdate(enabled, visible, text, badge, true);
+    }
+
+    /**
+     * Merges a later update of the same item into this one: properties set on the later update win.
+     */
+    ToolbarItemUpdate mergedWith(ToolbarItemUpdate later) {
+        return new ToolbarItemUpdate(
+                later.enabled != null ? later.enabled : enabled,
+                later.visible != null ? later.visible : visible,
+                later.text != null ? later.text : text,
+                later.badgeSet ? later.badge : badge,
+                badgeSet || later.badgeSet);
+    }
+
+    /**
+     * Applies this update to the given item. Must be called with the session locked.
+     *
+     * @return {@code true} if the text or badge of the item changed
+     */
+    boolean applyTo(Component item) {
+        if (enabled != null) {
+            if (item instanceof HasEnabled hasEnabled) {
+                hasEnabled.setEnabled(enabled);
+            } else {
+                item.getElement().setEnabled(enabled);
+            }
+        }
+        if (visible != null) {
+            item.setVisible(visible);
+        }
+        if (text != null) {
+            // items with an icon host a button, setting the text of the item itself would remove it
+            if (item instanceof MenuItem menuItem
+                    && menuItem.getChildren().findFirst().orElse(null) instanceof Button button) {
+                button.setText(text);
+            } else if (item instanceof HasText hasText) {
+                hasText.setText(text);
+            } else {
+                item.getElement().setText(text);
+            }
+        }
+        if (badgeSet) {
+            if (badge == null) {
+                item.getElement().removeAttribute(BADGE_ATTRIBUTE);
+            } else {
+                item.getElement().setAttribute(BADGE_ATTRIBUTE, badge);
+            }
+        }
+        return text != null || badgeSet;
+    }
+
+    public Boolean getEnabled() {
+        return enabled;
+    }
+
+    public Boolean getVisible() {
+        return visible;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getBadge() {
+        return badge;
+    }
+
+}
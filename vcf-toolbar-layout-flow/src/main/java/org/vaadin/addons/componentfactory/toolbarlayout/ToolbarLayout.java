@@ -16,14 +16,38 @@ package org.vaadin.addons.componentfactory.toolbarlayout;
 import com.vaadin.flow.component.*;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.contextmenu.MenuItem;
+import com.vaadin.flow.component.contextmenu.SubMenu;
 import com.vaadin.flow.component.dependency.CssImport;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.dependency.NpmPackage;
 import com.vaadin.flow.component.menubar.MenuBar;
 import com.vaadin.flow.component.shared.HasThemeVariant;
+import com.vaadin.flow.data.provider.DataProvider;
+import com.vaadin.flow.dom.DebouncePhase;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.dom.DomEventListener;
+import com.vaadin.flow.dom.DomListenerRegistration;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.dom.ElementAttachEvent;
+import com.vaadin.flow.dom.ElementAttachListener;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.shared.Registration;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -39,10 +63,54 @@ import java.util.stream.Collectors;
 public class ToolbarLayout extends Component implements HasOrderedComponents, HasSize, HasStyle, HasThemeVariant<ToolbarLayoutVariant>
 {
     private static final String OVERFLOW_BUTTON_SLOT = "overflow-button";
+    private static final String DROPDOWN_INDICATORS_THEME = "dropdown-indicators";
+    private static final String[] ITEM_BUTTON_THEMES = { "tertiary", "tertiary-inline" };
+    private static final String BREAKPOINT_MODE_ATTRIBUTE = "breakpoint-mode";
+    private static final String COLLAPSE_BELOW_ATTRIBUTE = "data-collapse-below";
+    private static final String EXPAND_BELOW_ATTRIBUTE = "data-expand-below";
+    // the breakpoints covered by the container queries of toolbar-layout-styles.css
+    static final int BREAKPOINT_STEP = 50;
+    static final int MAX_BREAKPOINT = 2000;
+    // the property MenuBar.setTooltipText sets on the item element, read by the tooltip of the MenuBar
+    private static final String MENU_ITEM_TOOLTIP_PROPERTY = "tooltip";
+    private static final String CLICK_FORWARDERS_DATA_KEY = "toolbar-layout-click-forwarders";
+    // the element disabled on click in the browser: the rendered button of a root MenuItem, else the element
+    private static final String DISABLE_TARGET = "(%s.closest('vaadin-menu-bar-button') || %<s)";
+    // only sends clicks of elements that have not been disabled on click yet
+    private static final String DISABLE_ON_CLICK_FILTER = "!" + DISABLE_TARGET.formatted("element") + ".disabled";
 
     // properties passed to children MenuBar components
     private boolean isOpenHover = false;
     private boolean isDropdownIndicatorShown = true;
+    // set when the properties above changed and still need to be pushed to existing MenuBar children
+    private boolean isMenuBarSettingsDirty = false;
+
+    // single MenuBar hosting all items added via the MenuBar-like API, see setSharedMenuBarMode
+    private boolean isSharedMenuBarMode = false;
+    private MenuBar sharedMenuBar;
+
+    // indexes of the children managed by this toolbar, kept in sync on add/remove. They can be derived
+    // from the children, so they are not serialized but rebuilt on first use, see ensureIndexes()
+    private transient Set<MenuBar> menuBars = new LinkedHashSet<>();
+    private transient Map<MenuItem, MenuBar> menuItemOwners = new HashMap<>();
+    private transient Component overflowButton;
+    // built on the first search, see ensureSearchIndex()
+    private transient ToolbarSearchIndex searchIndex;
+
+    private ToolbarDataBinding<?> dataBinding;
+
+    private ToolbarClickOptions clickOptions = ToolbarClickOptions.defaults();
+
+    // shortcut dispatch table: items by key combination, and the key combinations of each item
+    private final Map<String, Component> shortcutItems = new HashMap<>();
+    private final Map<Component, List<String>> itemShortcuts = new HashMap<>();
+
+    private final AsyncItemUpdates asyncItemUpdates = new AsyncItemUpdates(this);
+    private final AsyncItemChecks asyncItemChecks = new AsyncItemChecks(this, asyncItemUpdates);
+
+    // menu listing the items collapsed in breakpoint mode, rebuilt once per round trip when outdated
+    private MenuBar collapsedItemsMenu;
+    private boolean isCollapsedItemsMenuDirty = false;
 
     public ToolbarLayout() {
         super();
@@ -54,14 +122,7 @@ public class ToolbarLayout extends Component implements HasOrderedComponents, Ha
 
     public void setDropdownIndicatorShown(boolean isDropdownIndicatorShown) {
         this.isDropdownIndicatorShown = isDropdownIndicatorShown;
-
-        // update existing menu bars
-        findAllMenuBars().forEach(menuBar -> {
-            if (isDropdownIndicatorShown)
-                menuBar.addThemeNames("dropdown-indicators");
-            else
-                menuBar.removeThemeNames("dropdown-indicators");
-        });
+        markMenuBarSettingsDirty();
     }
 
     /**
@@ -82,284 +143,1939 @@ public class ToolbarLayout extends Component implements HasOrderedComponents, Ha
         getElement().setProperty("updateDebounceDelay", delay);
     }
 
-    // ==================================================
-    // MenuBar-like API for easy migration from MenuBar
-    // ==================================================
-
     /**
-     * Creates a new {@link MenuItem} component with the provided text content and icon
-     * and adds it to the root level of this menu bar.
+     * Sets whether items added via the MenuBar-like API ({@link #addItem(String)},
+     * {@link #addItem(String, Component)} and their overloads) are hosted as root items of one
+     * shared {@link MenuBar} instead of getting a {@link MenuBar} of their own.
      * <p>
-     * The added {@link MenuItem} component is placed inside a button in the
-     * menu bar. If this button overflows the menu bar horizontally, the
-     * {@link MenuItem} is moved out of the button, into a context menu openable
-     * via an overflow button at the end of the button row.
+     * A toolbar with many items then only creates one {@link MenuBar} (and one overlay) on the server and
+     * in the browser. The shared {@link MenuBar} is added to the toolbar when the first item is added in this
+     * mode, so all of these items stay together at that position.
      * <p>
-     * To add content to the sub menu opened by clicking the root level item,
-     * use {@link MenuItem#getSubMenu()}.
+     * <b>Note:</b> the toolbar sees the shared {@link MenuBar} as a single item. Its root items do not collapse
+     * into the overflow menu of the toolbar, but into the own overflow button of the {@link MenuBar}, so a
+     * narrow toolbar shows two overflow buttons. Likewise, {@link #searchItems(String, int, int)} returns the
+     * shared {@link MenuBar} for a match of any of its root items, and a breakpoint set in
+     * {@link #setBreakpointMode(boolean) breakpoint mode} hides all of its root items at once, while the menu
+     * of collapsed items still lists them one by one. Use this mode for groups of items that can collapse
+     * independently of the rest of the toolbar.
+     * <p>
+     * Only affects items added after calling this method.
      *
-     * @param text
-     *            the text content for the new item
-     * @return the added {@link MenuItem} component
+     * @param sharedMenuBarMode
+     *            {@code true} to add all menu items to one shared {@link MenuBar}, {@code false} to create a
+     *            {@link MenuBar} per item (default)
      */
-    public MenuItem addItem(String text, Component icon) {
-        MenuBar menuBar = createMenuBar();
-        add(menuBar);
+    public void setSharedMenuBarMode(boolean sharedMenuBarMode) {
+        this.isSharedMenuBarMode = sharedMenuBarMode;
+    }
 
-        Button button = new Button(text, icon);
-        button.addThemeNames("tertiary", "tertiary-inline");
-        return menuBar.addItem(button);
+    /**
+     * Gets whether items added via the MenuBar-like API are hosted by one shared {@link MenuBar}.
+     *
+     * @return {@code true} if all menu items are added to one shared {@link MenuBar}, {@code false} if
+     *         a {@link MenuBar} is created per item
+     */
+    public boolean isSharedMenuBarMode() {
+        return isSharedMenuBarMode;
     }
 
+    // ==================================================
+    // Breakpoint mode
+    // ==================================================
+
     /**
-     * Creates a new {@link MenuItem} component with the provided text content
-     * and adds it to the root level of this menu bar.
+     * Sets whether the items with a breakpoint collapse at the fixed container widths declared via
+     * {@link #setItemCollapseBreakpoint(Component, Integer)}, instead of based on their measured widths.
      * <p>
-     * The added {@link MenuItem} component is placed inside a button in the
-     * menu bar. If this button overflows the menu bar horizontally, the
-     * {@link MenuItem} is moved out of the button, into a context menu openable
-     * via an overflow button at the end of the button row.
+     * In breakpoint mode, the browser hides the items with a breakpoint by the CSS container queries of
+     * {@code toolbar-layout-styles.css}. This suits toolbars whose items have known, fixed widths. The web
+     * component cannot be told to stop measuring, so it still observes resizes and measures the items that
+     * are shown: items without breakpoint keep overflowing into its overflow menu as usual, while the hidden
+     * items take up no space in that measurement. Breakpoint mode thus does not save the script work on
+     * resize, it makes the collapsing of the items with a breakpoint predictable. The toolbar becomes a size
+     * container ({@code container-type: inline-size}), so its width must not depend on its content, which is
+     * the case when it is sized by its parent as usual.
      * <p>
-     * To add content to the sub menu opened by clicking the root level item,
-     * use {@link MenuItem#getSubMenu()}.
+     * The collapsed items are not listed in the overflow menu of the web component, which only lists the items
+     * it measured as overflowing. To keep them reachable, the toolbar adds a menu of its own as its last child,
+     * shown while the toolbar is narrower than the widest breakpoint. The menu has an entry for each item with
+     * a breakpoint. The entries of the items that are still shown are hidden by the same container queries as
+     * long as the menu overlay is rendered inside the toolbar; otherwise, all of them are listed.
      *
-     * @param text
-     *            the text content for the new item
-     * @return the added {@link MenuItem} component
+     * @param breakpointMode
+     *            {@code true} to collapse items at the declared breakpoints, {@code false} to collapse them
+     *            based on their measured widths (default)
      */
-    public MenuItem addItem(String text) {
-        MenuBar menuBar = createMenuBar();
-        add(menuBar);
-        return menuBar.addItem(text);
+    public void setBreakpointMode(boolean breakpointMode) {
+        getElement().setAttribute(BREAKPOINT_MODE_ATTRIBUTE, breakpointMode);
+        markCollapsedItemsMenuDirty();
     }
 
     /**
-     * Adds the given component to the toolbar.
-     * <p>
-     * Please note, that there is no {@link MenuItem} created. Modify the component directly if necessary.
-     * </p>
-     * @param component
-     *            the component to add inside new item
+     * Gets whether the items collapse at fixed container widths instead of measuring the items.
+     *
+     * @return {@code true} if breakpoint mode is enabled
      */
-    public void addItem(Component component) {
-        add(component);
+    public boolean isBreakpointMode() {
+        return getElement().hasAttribute(BREAKPOINT_MODE_ATTRIBUTE);
     }
 
     /**
-     * Creates a new {@link MenuItem} component with the provided text content
-     * and click listener and adds it to the root level of this menu bar.
-     * <p>
-     * The added {@link MenuItem} component is placed inside a button in the
-     * menu bar. If this button overflows the menu bar horizontally, the
-     * {@link MenuItem} is moved out of the button, into a context menu openable
-     * via an overflow button at the end of the button row.
+     * Sets the container width below which the given item is collapsed when
+     * {@link #setBreakpointMode(boolean) breakpoint mode} is enabled. Items without breakpoint never
+     * collapse in breakpoint mode.
      * <p>
-     * To add content to the sub menu opened by clicking the root level item,
-     * use {@link MenuItem#getSubMenu()}.
+     * The container queries are part of the style sheet of this add-on, which covers the widths from
+     * {@value #BREAKPOINT_STEP} to {@value #MAX_BREAKPOINT} pixels in steps of {@value #BREAKPOINT_STEP}
+     * pixels, so other widths are rejected.
      *
-     * @param text
-     *            the text content for the new item
-     * @param clickListener
-     *            the handler for clicking the new item, can be {@code null} to
-     *            not add listener
-     * @return the added {@link MenuItem} component
+     * @param item
+     *            a child of this toolbar
+     * @param containerWidthInPixels
+     *            the container width in pixels below which the item collapses, or {@code null} to remove
+     *            the breakpoint
+     * @throws IllegalArgumentException
+     *             if the width is not a multiple of {@value #BREAKPOINT_STEP} up to {@value #MAX_BREAKPOINT}
      */
-    public MenuItem addItem(String text,
-                            ComponentEventListener<ClickEvent<MenuItem>> clickListener) {
-        MenuItem item = addItem(text);
-        item.addClickListener(clickListener);
-        return item;
+    public void setItemCollapseBreakpoint(Component item, Integer containerWidthInPixels) {
+        Objects.requireNonNull(item, "Item must not be null");
+        if (containerWidthInPixels == null) {
+            item.getElement().removeAttribute(COLLAPSE_BELOW_ATTRIBUTE);
+        } else if (containerWidthInPixels <= 0 || containerWidthInPixels > MAX_BREAKPOINT
+                || containerWidthInPixels % BREAKPOINT_STEP != 0) {
+            throw new IllegalArgumentException("Breakpoint must be a multiple of " + BREAKPOINT_STEP
+                    + " pixels, up to " + MAX_BREAKPOINT + " pixels");
+        } else {
+            item.getElement().setAttribute(COLLAPSE_BELOW_ATTRIBUTE, String.valueOf(containerWidthInPixels));
+        }
+        markCollapsedItemsMenuDirty();
     }
 
     /**
-     * A convenience method to add a component and register a click listener on it. However, if the given component
-     * provides a built-in click listener, it is recommended, to use that instead and add the component using
-     * {@link #addItem(Component)} (e.g. for {@link Button}.
-     * <p>
-     * Please note, that there is no {@link MenuItem} created. Modify the component directly if necessary.
-     * </p>
+     * Gets the container width below which the given item is collapsed in breakpoint mode, see
+     * {@link #setItemCollapseBreakpoint(Component, Integer)}.
      *
-     * @param component
-     *            the component to add inside the added menu item
-     * @param clickListener
-     *            the handler for clicking the new item, can be {@code null} to
-     *            not add listener
+     * @param item
+     *            a child of this toolbar
+     * @return the breakpoint in pixels, or {@code null} if no breakpoint is set
      */
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    public <T extends Component> void addItem(T component,
-                                              ComponentEventListener<ClickEvent<T>> clickListener) {
-        // if the component provides a click listener integration, we use that
-        if(component instanceof ClickNotifier cn) {
-            cn.addClickListener(clickListener);
-        } else {
-            component.getElement().addEventListener("click",
-                    e -> clickListener.onComponentEvent(new ClickEvent<>(component)));
+    public Integer getItemCollapseBreakpoint(Component item) {
+        String breakpoint = item.getElement().getAttribute(COLLAPSE_BELOW_ATTRIBUTE);
+        return breakpoint != null ? Integer.valueOf(breakpoint) : null;
+    }
+
+    /**
+     * Gets the menu listing the items collapsed in breakpoint mode, see {@link #setBreakpointMode(boolean)}.
+     * Intended for testing.
+     *
+     * @return the menu, or an empty optional if it is not a child of this toolbar
+     */
+    Optional<MenuBar> getCollapsedItemsMenu() {
+        return Optional.ofNullable(collapsedItemsMenu).filter(this::isOwnChild);
+    }
+
+    /**
+     * Records that the menu of collapsed items is outdated. It is rebuilt once, right before the response is
+     * sent to the client. Nothing is done while breakpoint mode is disabled and there is no menu to remove.
+     */
+    private void markCollapsedItemsMenuDirty() {
+        if (isCollapsedItemsMenuDirty || (!isBreakpointMode() && collapsedItemsMenu == null)) {
+            return;
         }
+        isCollapsedItemsMenuDirty = true;
+        getUI().ifPresent(ui -> ui.beforeClientResponse(this, context -> flushCollapsedItemsMenu()));
+    }
 
-        add(component);
+    private void flushCollapsedItemsMenu() {
+        if (!isCollapsedItemsMenuDirty) {
+            return;
+        }
+        isCollapsedItemsMenuDirty = false;
+
+        List<Component> collapsibleItems = isBreakpointMode()
+                ? getItems().stream().filter(item -> item.getElement().hasAttribute(COLLAPSE_BELOW_ATTRIBUTE)).toList()
+                : List.of();
+        if (collapsibleItems.isEmpty()) {
+            if (collapsedItemsMenu != null && isOwnChild(collapsedItemsMenu)) {
+                getElement().removeChild(collapsedItemsMenu.getElement());
+            }
+            collapsedItemsMenu = null;
+            return;
+        }
+
+        if (collapsedItemsMenu == null) {
+            collapsedItemsMenu = createMenuBar();
+            collapsedItemsMenu.addItem("\u2026").getElement().setAttribute("aria-label", "Collapsed items");
+        }
+        // keep the menu after the items, it is not indexed as an item
+        Element menuElement = collapsedItemsMenu.getElement();
+        if (getElement().getChildCount() == 0 || !getElement().getChild(getElement().getChildCount() - 1)
+                .equals(menuElement)) {
+            getElement().appendChild(menuElement);
+        }
+
+        SubMenu subMenu = collapsedItemsMenu.getItems().get(0).getSubMenu();
+        subMenu.removeAll();
+        int widestBreakpoint = 0;
+        for (Component item : collapsibleItems) {
+            String breakpoint = item.getElement().getAttribute(COLLAPSE_BELOW_ATTRIBUTE);
+            widestBreakpoint = Math.max(widestBreakpoint, Integer.parseInt(breakpoint));
+            if (item instanceof MenuBar menuBar && menuBar.getItems().size() > 1) {
+                // the root items of a shared MenuBar collapse together, but stay reachable one by one
+                for (MenuItem rootItem : menuBar.getItems()) {
+                    addCollapsedItemEntry(subMenu, item, rootItem, breakpoint);
+                }
+            } else {
+                addCollapsedItemEntry(subMenu, item, item, breakpoint);
+            }
+        }
+        menuElement.setAttribute(EXPAND_BELOW_ATTRIBUTE, String.valueOf(widestBreakpoint));
+    }
+
+    private void addCollapsedItemEntry(SubMenu subMenu, Component child, Component target, String breakpoint) {
+        MenuItem entry = subMenu.addItem(getItemLabel(target), new CollapsedItemClickListener(this, child, target));
+        entry.setEnabled(isItemEnabled(target));
+        entry.getElement().setAttribute(EXPAND_BELOW_ATTRIBUTE, breakpoint);
     }
 
+    // ==================================================
+    // Item labels
+    // ==================================================
+
     /**
-     * Creates a new {@link MenuItem} component with the provided text content
-     * and the tooltip text and adds it to the root level of this menu bar.
-     * <p>
-     * The added {@link MenuItem} component is placed inside a button in the
-     * menu bar. If this button overflows the menu bar horizontally, the
-     * {@link MenuItem} is moved out of the button, into a context menu openable
-     * via an overflow button at the end of the button row.
-     * <p>
-     * To add content to the sub menu opened by clicking the root level item,
-     * use {@link MenuItem#getSubMenu()}.
+     * Gets the label of an item as listed in the menu of items collapsed in {@link #setBreakpointMode(boolean)
+     * breakpoint mode}: the label of a component with a label, the text of the root item of a
+     * {@link MenuBar} with a single root item, or the text content of any other component.
      *
-     * @param text
-     *            the text content for the new item
-     * @param tooltipText
-     *            the tooltip text for the new item
-     * @return the added {@link MenuItem} component
+     * @param item
+     *            a child of this toolbar
+     * @return the label of the item, may be empty
      */
-    public MenuItem addItem(String text, String tooltipText) {
-        var item = addItem(text);
-        setMenuItemTooltipText(item, tooltipText);
-        return item;
+    static String getItemLabel(Component item) {
+        if (item instanceof HasLabel hasLabel && hasLabel.getLabel() != null && !hasLabel.getLabel().isEmpty()) {
+            return hasLabel.getLabel();
+        }
+        Component labelled = item;
+        if (item instanceof MenuBar menuBar && menuBar.getItems().size() == 1) {
+            labelled = menuBar.getItems().get(0);
+        }
+        String text = labelled.getElement().getTextRecursively().trim();
+        if (text.isEmpty() && labelled.getElement().hasAttribute("aria-label")) {
+            return labelled.getElement().getAttribute("aria-label");
+        }
+        return text;
+    }
+
+    private static boolean isItemEnabled(Component item) {
+        if (item instanceof MenuBar menuBar && menuBar.getItems().size() == 1) {
+            return menuBar.getItems().get(0).getElement().isEnabled();
+        }
+        return item.getElement().isEnabled();
     }
 
+    // ==================================================
+    // Item search
+    // ==================================================
+
     /**
-     * Creates a new {@link MenuItem} component with the provided text content
-     * and the tooltip text and click listener and adds it to the root level of
-     * this menu bar.
-     * <p>
-     * The added {@link MenuItem} component is placed inside a button in the
-     * menu bar. If this button overflows the menu bar horizontally, the
-     * {@link MenuItem} is moved out of the button, into a context menu openable
-     * via an overflow button at the end of the button row.
+     * Searches the items of this toolbar by their label and tooltip, e.g. for a command palette. Query words
+     * of at least three characters match anywhere in the label or tooltip, shorter ones match the start of a
+     * word; an item matches if it matches all words of the query. The search ignores case.
      * <p>
-     * To add content to the sub menu opened by clicking the root level item,
-     * use {@link MenuItem#getSubMenu()}.
+     * The search uses an index that is built on the first search and then updated as items are added and
+     * removed. When the label of a child changes after it has been added, call
+     * {@link #refreshSearchIndex(Component)}.
      *
-     * @param text
-     *            the text content for the new item
-     * @param tooltipText
-     *            the tooltip text for the new item
-     * @param clickListener
-     *            the handler for clicking the new item, can be {@code null} to
-     *            not add listener
-     * @return the added {@link MenuItem} component
+     * @param query
+     *            the query, an empty query matches all items
+     * @param offset
+     *            the number of matches to skip
+     * @param limit
+     *            the maximum number of matches to return
+     * @return the matching items, in the order of this toolbar
      */
-    public MenuItem addItem(String text, String tooltipText,
-                            ComponentEventListener<ClickEvent<MenuItem>> clickListener) {
-        var item = addItem(text, clickListener);
-        setMenuItemTooltipText(item, tooltipText);
-        return item;
+    public List<Component> searchItems(String query, int offset, int limit) {
+        Set<Component> matches = ensureSearchIndex().search(query);
+        List<Component> result = new ArrayList<>();
+        // collect the matches in the order of this toolbar
+        for (Component item : getItems()) {
+            if (matches.isEmpty() || result.size() == limit) {
+                break;
+            }
+            if (matches.remove(item)) {
+                if (offset > 0) {
+                    offset--;
+                } else {
+                    result.add(item);
+                }
+            }
+        }
+        return result;
     }
 
     /**
-     * Sets the event which opens the sub menus of the root level buttons.
+     * Updates the search index entry of the given item, e.g. after its label changed. Does nothing for
+     * components that are not children of this toolbar.
      *
-     * @param openOnHover
-     *            {@code true} to make the sub menus open on hover (mouseover),
-     *            {@code false} to make them openable by clicking
+     * @param item
+     *            a child of this toolbar
      */
-    public void setOpenOnHover(boolean openOnHover) {
-        this.isOpenHover = openOnHover;
+    public void refreshSearchIndex(Component item) {
+        Objects.requireNonNull(item, "Item must not be null");
+        // an index that has not been built yet will pick up the current label anyway
+        updateSearchIndex(item);
+    }
+
+    /**
+     * Builds the search index from the children on first use. Afterwards, it is kept up to date by
+     * {@link #indexChild(Component)} and {@link #unindexChild(Component)}.
+     */
+    private ToolbarSearchIndex ensureSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new ToolbarSearchIndex();
+            getChildren().forEach(child -> searchIndex.put(child, getSearchableText(child)));
+        }
+        return searchIndex;
+    }
 
-        // update existing menu bars
-        findAllMenuBars().forEach(menuBar -> menuBar.setOpenOnHover(openOnHover));
+    private void updateSearchIndex(Component child) {
+        if (searchIndex != null && isOwnChild(child)) {
+            searchIndex.put(child, getSearchableText(child));
+        }
+    }
+
+    private static String getSearchableText(Component item) {
+        if (item instanceof MenuBar menuBar && menuBar.getItems().size() > 1) {
+            // a shared MenuBar is a single item, found by the labels and tooltips of all its root items
+            return menuBar.getItems().stream().map(ToolbarLayout::getSearchableText)
+                    .collect(Collectors.joining(" "));
+        }
+        Component tooltipHolder = item;
+        if (item instanceof MenuBar menuBar && menuBar.getItems().size() == 1) {
+            tooltipHolder = menuBar.getItems().get(0);
+        }
+        String tooltipText = tooltipHolder instanceof MenuItem
+                ? tooltipHolder.getElement().getProperty(MENU_ITEM_TOOLTIP_PROPERTY)
+                : tooltipHolder.getElement().getAttribute("title");
+        return tooltipText != null ? getItemLabel(item) + " " + tooltipText : getItemLabel(item);
     }
 
+    // ==================================================
+    // Client actions
+    // ==================================================
+
     /**
-     * Gets whether the sub menus open by clicking or hovering on the root level
-     * buttons.
+     * Creates a new {@link MenuItem} component with the provided text content that runs the given action in
+     * the browser when clicked, see {@link #setClientAction(Component, ToolbarClientAction)}.
      *
-     * @return {@code true} if the sub menus open by hovering on the root level
-     *         buttons, {@code false} if they open by clicking
+     * @param text
+     *            the text content for the new item
+     * @param clientAction
+     *            the action to run when the item is clicked, not {@code null}
+     * @return the added {@link MenuItem} component
      */
-    public boolean isOpenOnHover() {
-        return isOpenHover;
+    public MenuItem addItem(String text, ToolbarClientAction clientAction) {
+        Objects.requireNonNull(clientAction, "Client action must not be null");
+        MenuItem item = addItem(text);
+        setClientAction(item, clientAction);
+        return item;
     }
 
     /**
-     * Sets reverse collapse order for the menu bar.
+     * Binds an action to an item that runs in the browser when the item is clicked, e.g. printing the page
+     * or copying a text to the clipboard. Running the action does not involve the server at all. The item
+     * keeps any click listeners registered on the server, so those should not be added for such items.
+     * <p>
+     * The action also runs when the item is clicked in the overflow menu, as the overflow menu forwards
+     * clicks to the item element. Entries of the menu of items collapsed in {@link #setBreakpointMode(boolean)
+     * breakpoint mode} and {@link #setItemShortcut(Component, Key, KeyModifier...) shortcuts} are handled on the
+     * server, which then runs the action in the browser, so these take one round trip.
      *
-     * @param reverseCollapseOrder
-     *            If {@code true}, the buttons will be collapsed into the
-     *            overflow menu starting from the "start" end of the bar instead
-     *            of the "end".
+     * @param item
+     *            the item, e.g. a {@link MenuItem} or a child of this toolbar
+     * @param clientAction
+     *            the action to run when the item is clicked, or {@code null} to remove the action
      */
-    public void setReverseCollapseOrder(boolean reverseCollapseOrder) {
-        getElement().setProperty("reverseCollapse", reverseCollapseOrder);
+    public void setClientAction(Component item, ToolbarClientAction clientAction) {
+        Objects.requireNonNull(item, "Item must not be null");
+        ClientActionInstaller previous = ComponentUtil.getData(item, ClientActionInstaller.class);
+        if (previous != null) {
+            previous.remove();
+            ComponentUtil.setData(item, ClientActionInstaller.class, null);
+        }
+        if (clientAction != null) {
+            ClientActionInstaller installer = new ClientActionInstaller(item, clientAction);
+            ComponentUtil.setData(item, ClientActionInstaller.class, installer);
+            installer.install();
+        }
     }
 
     /**
-     * Gets whether the menu bar uses reverse collapse order.
-     *
-     * @return {@code true} if the buttons will be collapsed into the overflow
-     *         menu starting from the "start" end of the bar instead of the
-     *         "end".
+     * Gets the action run in the browser when the given item is clicked.
      *
+     * @param item
+     *            the item
+     * @return the client action, or {@code null} if none is set
      */
-    public boolean isReverseCollapseOrder() {
-        return getElement().getProperty("reverseCollapse", false);
+    public ToolbarClientAction getClientAction(Component item) {
+        ClientActionInstaller installer = ComponentUtil.getData(item, ClientActionInstaller.class);
+        return installer != null ? installer.clientAction : null;
     }
 
+    // ==================================================
+    // Keyboard shortcuts
+    // ==================================================
+
     /**
-     * Provide a custom button to be used as the overflow button. This will replace any other overflow
-     * button that may have been set previously.
+     * Sets the keyboard shortcut clicking the given item, replacing any previous shortcut of the item. The
+     * shortcut also works while the item is collapsed into the overflow menu.
+     * <p>
+     * All shortcuts of the toolbar are handled by a single listener in the browser, which only contacts the
+     * server for known key combinations, and dispatched on the server via a lookup table. Shortcuts of
+     * disabled or invisible items are ignored, and the shortcut of an item is removed together with the item.
+     * <p>
+     * While an input field, text area, select or content editable element is focused, shortcuts without
+     * {@link KeyModifier#CONTROL}, {@link KeyModifier#ALT} or {@link KeyModifier#META} are left to the
+     * focused element, so that typing is not hijacked by the toolbar.
      *
-     * @param overflowButton the button to use as the overflow button, or {@code null} to remove any existing overflow button
-     *                       and revert to the default overflow button
+     * @param item
+     *            the item, e.g. a {@link MenuItem} or a child of this toolbar
+     * @param key
+     *            the primary key of the shortcut, not {@code null}
+     * @param modifiers
+     *            the modifier keys that have to be pressed with the key
+     * @throws IllegalArgumentException
+     *             if the item is not part of this toolbar, or if the key combination is already used by
+     *             another item of this toolbar
      */
-    public void setOverflowButton(Button overflowButton) {
-        // remove current overflow button if it exists
-        getChildren()
-                .filter(c -> OVERFLOW_BUTTON_SLOT.equals(c.getElement().getAttribute("slot")))
-                .forEach(this::remove);
+    public void setItemShortcut(Component item, Key key, KeyModifier... modifiers) {
+        requireItem(item);
+        Objects.requireNonNull(key, "Key must not be null");
 
-        // add new button if provided
-        if (overflowButton != null) {
-            // must set slot to overflow-button in order for component to recognize it as the overflow button
-            overflowButton.getElement().setAttribute("slot", OVERFLOW_BUTTON_SLOT);
-            add(overflowButton);
+        List<String> combinations = toKeyCombinations(key, modifiers);
+        for (String combination : combinations) {
+            Component owner = shortcutItems.get(combination);
+            if (owner != null && owner != item) {
+                throw new IllegalArgumentException("Key combination " + combination + " is already used by another item");
+            }
         }
-    }
 
-    private MenuBar createMenuBar() {
-        MenuBar menuBar = new MenuBar();
-        menuBar.setOpenOnHover(isOpenHover);
-        menuBar.addThemeNames("dropdown-indicators");
-        return menuBar;
+        boolean wasEmpty = shortcutItems.isEmpty();
+        removeShortcutEntries(item);
+        combinations.forEach(combination -> shortcutItems.put(combination, item));
+        itemShortcuts.put(item, combinations);
+        updateShortcutCombinations();
+        if (wasEmpty && isAttached()) {
+            installShortcutListener();
+        }
     }
 
-    private List<MenuBar> findAllMenuBars() {
-        return getChildren()
-                .filter(c -> c instanceof MenuBar)
-                .map(MenuBar.class::cast)
-                .collect(Collectors.toList());
+    /**
+     * Removes the keyboard shortcut of the given item, see {@link #setItemShortcut(Component, Key, KeyModifier...)}.
+     *
+     * @param item
+     *            the item
+     */
+    public void removeItemShortcut(Component item) {
+        if (removeShortcutEntries(item)) {
+            updateShortcutCombinations();
+        }
     }
 
-    private void setMenuItemTooltipText(MenuItem item, String tooltipText) {
-        findMenuBarParent(item).ifPresentOrElse(
-                menuBar -> {
-                    menuBar.setTooltipText(item, tooltipText);
-                },
-                () -> {
-                    throw new IllegalStateException("MenuItem is not a child of a MenuBar");
-                });
+    /**
+     * Clicks the item registered for the given key combination, called by the shortcut listener.
+     */
+    @ClientCallable
+    void dispatchShortcut(String combination) {
+        Component item = shortcutItems.get(combination);
+        if (item == null) {
+            return;
+        }
+        if (!containsItem(item)) {
+            // removed without going through this toolbar, e.g. directly from its menu bar
+            removeItemShortcut(item);
+            return;
+        }
+        // the client may be out of date, so do not trust it about the state of the item
+        if (item.isVisible() && item.getElement().isEnabled()) {
+            activateItem(item);
+        }
     }
 
-    private Optional<MenuBar> findMenuBarParent(MenuItem menuItem) {
-        MenuBar parent = null;
-
-        // loop through the parent components until we find a MenuBar
-        Component currentComponent = menuItem;
-        while (!(currentComponent instanceof MenuBar) && currentComponent.getParent().isPresent()) {
-            currentComponent = currentComponent.getParent().get();
+    /**
+     * Gets the normalized key combinations matching the given key and modifiers, one for each key name,
+     * e.g. {@code control+shift+s}. The modifiers are in a fixed order, as sent by the shortcut listener.
+     */
+    static List<String> toKeyCombinations(Key key, KeyModifier... modifiers) {
+        List<KeyModifier> modifierList = Arrays.asList(modifiers);
+        if (modifierList.contains(KeyModifier.ALT_GRAPH)) {
+            throw new IllegalArgumentException("AltGraph is not supported as shortcut modifier");
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (KeyModifier modifier : new KeyModifier[] { KeyModifier.ALT, KeyModifier.CONTROL, KeyModifier.META,
+                KeyModifier.SHIFT }) {
+            if (modifierList.contains(modifier)) {
+                prefix.append(modifier.getKeys().get(0).toLowerCase(Locale.ROOT)).append('+');
+            }
         }
 
-        if (currentComponent instanceof MenuBar) {
-            return Optional.of((MenuBar) currentComponent);
+        List<String> combinations = new ArrayList<>(key.getKeys().size());
+        for (String keyName : key.getKeys()) {
+            combinations.add(prefix + keyName.toLowerCase(Locale.ROOT));
         }
+        return combinations;
+    }
 
+    private boolean removeShortcutEntries(Component item) {
+        List<String> previous = itemShortcuts.remove(item);
+        if (previous == null) {
+            return false;
+        }
+        previous.forEach(shortcutItems::remove);
+        return true;
+    }
+
+    private void updateShortcutCombinations() {
+        if (shortcutItems.isEmpty()) {
+            getElement().removeProperty("shortcutCombinations");
+        } else {
+            getElement().setProperty("shortcutCombinations", String.join("\n", shortcutItems.keySet()));
+        }
+    }
+
+    /**
+     * Adds the single keydown listener of this toolbar to the document. It looks up the pressed key
+     * combination in the {@code shortcutCombinations} property, and removes itself once the toolbar has
+     * been removed from the page. Key presses typing into an editable element are not handled.
+     */
+    private void installShortcutListener() {
+        getElement().executeJs("const toolbar = this;"
+                + "if (toolbar.__shortcutListener) { document.removeEventListener('keydown', toolbar.__shortcutListener); }"
+                + "toolbar.__shortcutListener = (event) => {"
+                + "  if (!toolbar.isConnected) { document.removeEventListener('keydown', toolbar.__shortcutListener); return; }"
+                + "  const combinations = toolbar.shortcutCombinations;"
+                + "  if (!combinations) { return; }"
+                + "  if (toolbar.__shortcutSource !== combinations) {"
+                + "    toolbar.__shortcutSet = new Set(combinations.split('\\n'));"
+                + "    toolbar.__shortcutSource = combinations;"
+                + "  }"
+                + "  const target = event.composedPath()[0];"
+                + "  const editable = target && (target.isContentEditable"
+                + "      || ['INPUT', 'TEXTAREA', 'SELECT'].includes(target.tagName));"
+                + "  if (editable && !event.altKey && !event.ctrlKey && !event.metaKey) { return; }"
+                + "  const prefix = (event.altKey ? 'alt+' : '') + (event.ctrlKey ? 'control+' : '')"
+                + "      + (event.metaKey ? 'meta+' : '') + (event.shiftKey ? 'shift+' : '');"
+                + "  for (const key of [event.key, event.code]) {"
+                + "    const combination = key && prefix + key.toLowerCase();"
+                + "    if (combination && toolbar.__shortcutSet.has(combination)) {"
+                + "      event.preventDefault();"
+                + "      toolbar.$server.dispatchShortcut(combination);"
+                + "      return;"
+                + "    }"
+                + "  }"
+                + "};"
+                + "document.addEventListener('keydown', toolbar.__shortcutListener);");
+    }
+
+    // ==================================================
+    // Asynchronous item updates and checks
+    // ==================================================
+
+    /**
+     * Queues a change of the state of an item, e.g. its enabled state, text or badge. Unlike other methods
+     * of this component, this method may be called from any thread without locking the session.
+     * <p>
+     * Queued changes are applied together in one {@link UI#access(com.vaadin.flow.server.Command)} per
+     * {@link #setAsyncUpdateInterval(int) flush interval}, so a burst of changes results in a single push.
+     * Changes of the same item are merged while queued, the latest value of each property winning. Changes
+     * queued while the toolbar is detached are applied once it is attached again.
+     * <p>
+     * The changes are only pushed to the browser right away if server push is enabled, see
+     * {@link com.vaadin.flow.component.page.Push}. Without push, they are applied on the server and sent
+     * with the next response, e.g. to the next user interaction.
+     *
+     * @param item
+     *            the item, e.g. a {@link MenuItem} or a child of this toolbar, not {@code null}
+     * @param update
+     *            the changes to apply, not {@code null}
+     */
+    public void updateItemAsync(Component item, ToolbarItemUpdate update) {
+        Objects.requireNonNull(item, "Item must not be null");
+        Objects.requireNonNull(update, "Update must not be null");
+        asyncItemUpdates.enqueue(item, update);
+    }
+
+    /**
+     * Queues changes of the state of several items, see {@link #updateItemAsync(Component, ToolbarItemUpdate)}.
+     * May be called from any thread.
+     *
+     * @param updates
+     *            the changes to apply by item, not {@code null}
+     */
+    public void updateItemsAsync(Map<? extends Component, ToolbarItemUpdate> updates) {
+        Objects.requireNonNull(updates, "Updates must not be null");
+        updates.forEach(this::updateItemAsync);
+    }
+
+    /**
+     * Sets the interval in which changes queued via {@link #updateItemAsync(Component, ToolbarItemUpdate)}
+     * are applied. Longer intervals merge more changes into one push, at the cost of latency.
+     *
+     * @param flushInterval
+     *            the interval in milliseconds, at least 1 (default 100)
+     */
+    public void setAsyncUpdateInterval(int flushInterval) {
+        if (flushInterval < 1) {
+            throw new IllegalArgumentException("Flush interval must be at least 1");
+        }
+        asyncItemUpdates.setFlushInterval(flushInterval);
+    }
+
+    /**
+     * Gets the interval in which queued item changes are applied.
+     *
+     * @return the interval in milliseconds
+     */
+    public int getAsyncUpdateInterval() {
+        return asyncItemUpdates.getFlushInterval();
+    }
+
+    /**
+     * Sets a check deciding whether the given item is enabled, e.g. a permission check calling a slow
+     * service. The checks of all items are evaluated concurrently on virtual threads whenever the toolbar is
+     * attached, so rendering the toolbar does not wait for them; their results are applied in batches like
+     * {@link #updateItemAsync(Component, ToolbarItemUpdate) asynchronous updates}.
+     * <p>
+     * The item is disabled while its check is running. A check that throws an exception or does not
+     * complete within the {@link #setItemCheckTimeout(Duration) timeout} counts as {@code false}; its thread
+     * is interrupted then, so checks should stop waiting when interrupted. As the checks run on other
+     * threads, they must not access the UI or the component tree.
+     * <p>
+     * The checks of an item are dropped when it is removed from the toolbar.
+     *
+     * @param item
+     *            the item, e.g. a {@link MenuItem} or a child of this toolbar, not {@code null}
+     * @param enabledCheck
+     *            returns whether the item is enabled, or {@code null} to remove the check
+     * @throws IllegalArgumentException
+     *             if the item is not part of this toolbar
+     */
+    public void setItemEnabledCheck(Component item, SerializableSupplier<Boolean> enabledCheck) {
+        requireItem(item);
+        asyncItemChecks.setEnabledCheck(item, enabledCheck);
+    }
+
+    /**
+     * Sets a check deciding whether the given item is visible. Evaluated like the
+     * {@link #setItemEnabledCheck(Component, SerializableSupplier) enabled check}; the item keeps its
+     * current visibility while the check is running.
+     *
+     * @param item
+     *            the item, e.g. a {@link MenuItem} or a child of this toolbar, not {@code null}
+     * @param visibleCheck
+     *            returns whether the item is visible, or {@code null} to remove the check
+     * @throws IllegalArgumentException
+     *             if the item is not part of this toolbar
+     */
+    public void setItemVisibleCheck(Component item, SerializableSupplier<Boolean> visibleCheck) {
+        requireItem(item);
+        asyncItemChecks.setVisibleCheck(item, visibleCheck);
+    }
+
+    /**
+     * Evaluates the enabled and visible checks of all items again, e.g. after the permissions of the user
+     * changed.
+     */
+    public void refreshItemChecks() {
+        asyncItemChecks.evaluateAll();
+    }
+
+    /**
+     * Sets how long an enabled or visible check may take before it counts as {@code false}.
+     *
+     * @param timeout
+     *            the timeout, not {@code null} (default 2 seconds)
+     */
+    public void setItemCheckTimeout(Duration timeout) {
+        Objects.requireNonNull(timeout, "Timeout must not be null");
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        asyncItemChecks.setTimeout(timeout);
+    }
+
+    /**
+     * Gets how long an enabled or visible check may take before it counts as {@code false}.
+     *
+     * @return the timeout
+     */
+    public Duration getItemCheckTimeout() {
+        return asyncItemChecks.getTimeout();
+    }
+
+    /**
+     * Waits until the running enabled and visible checks have queued their results. Intended for testing.
+     *
+     * @param maxWait
+     *            how long to wait for each check at most
+     */
+    void awaitItemChecks(Duration maxWait) throws InterruptedException {
+        asyncItemChecks.awaitRunningChecks(maxWait);
+    }
+
+    /**
+     * Applies the queued item changes right away. Intended for testing.
+     */
+    void applyPendingItemUpdates() {
+        asyncItemUpdates.applyPendingUpdates();
+    }
+
+    /**
+     * Applies a queued change to an item, and updates the search index entry of the child of this toolbar
+     * hosting the item if needed.
+     */
+    void applyItemUpdate(Component item, ToolbarItemUpdate update) {
+        if (!update.applyTo(item)) {
+            return;
+        }
+        Component child = item;
+        if (item instanceof MenuItem menuItem) {
+            child = findOwningMenuBar(menuItem).orElse(null);
+        }
+        if (child != null && isOwnChild(child)) {
+            refreshSearchIndex(child);
+        }
+    }
+
+    // ==================================================
+    // Data binding
+    // ==================================================
+
+    /**
+     * Renders the items of the given data provider as toolbar items. Replaces any previous binding and
+     * removes its components; other children of the toolbar are kept.
+     * <p>
+     * The binding is refreshed when the data provider fires a change event, or manually via
+     * {@link ToolbarDataBinding#refreshAll()} and {@link ToolbarDataBinding#refreshItem(Object)}. Refreshing
+     * only creates, removes, moves or updates the components of items that actually changed.
+     *
+     * @param dataProvider
+     *            the data provider, not {@code null}
+     * @param renderer
+     *            creates the component for an item, not {@code null}
+     * @param <T>
+     *            the item type
+     * @return the binding, to refresh it or to configure in-place updates of changed items
+     */
+    public <T> ToolbarDataBinding<T> setItems(DataProvider<T, ?> dataProvider,
+                                              SerializableFunction<T, ? extends Component> renderer) {
+        if (dataBinding != null) {
+            dataBinding.remove();
+        }
+        ToolbarDataBinding<T> binding = new ToolbarDataBinding<>(this, dataProvider, renderer);
+        dataBinding = binding;
+        binding.refreshAll();
+        return binding;
+    }
+
+    /**
+     * Renders the given items as toolbar items. See {@link #setItems(DataProvider, SerializableFunction)}.
+     * <p>
+     * The list is used as backing collection, so after modifying it, call
+     * {@link ToolbarDataBinding#refreshAll()} to apply the changes.
+     *
+     * @param items
+     *            the items, not {@code null}
+     * @param renderer
+     *            creates the component for an item, not {@code null}
+     * @param <T>
+     *            the item type
+     * @return the binding, to refresh it or to configure in-place updates of changed items
+     */
+    public <T> ToolbarDataBinding<T> setItems(List<T> items, SerializableFunction<T, ? extends Component> renderer) {
+        return setItems(DataProvider.ofCollection(items), renderer);
+    }
+
+    /**
+     * Gets the current data binding, if items have been set via
+     * {@link #setItems(DataProvider, SerializableFunction)}.
+     *
+     * @return the current data binding or an empty optional
+     */
+    public Optional<ToolbarDataBinding<?>> getDataBinding() {
+        return Optional.ofNullable(dataBinding);
+    }
+
+    // ==================================================
+    // MenuBar-like API for easy migration from MenuBar
+    // ==================================================
+
+    /**
+     * Creates a new {@link MenuItem} component with the provided text content and icon
+     * and adds it to the root level of this menu bar.
+     * <p>
+     * The added {@link MenuItem} component is placed inside a button in the
+     * menu bar. If this button overflows the menu bar horizontally, the
+     * {@link MenuItem} is moved out of the button, into a context menu openable
+     * via an overflow button at the end of the button row.
+     * <p>
+     * To add content to the sub menu opened by clicking the root level item,
+     * use {@link MenuItem#getSubMenu()}.
+     *
+     * @param text
+     *            the text content for the new item
+     * @return the added {@link MenuItem} component
+     */
+    public MenuItem addItem(String text, Component icon) {
+        MenuBar menuBar = getMenuBarForNewItem();
+        return createMenuItem(menuBar, text, icon);
+    }
+
+    /**
+     * Creates a new {@link MenuItem} component with the provided text content
+     * and adds it to the root level of this menu bar.
+     * <p>
+     * The added {@link MenuItem} component is placed inside a button in the
+     * menu bar. If this button overflows the menu bar horizontally, the
+     * {@link MenuItem} is moved out of the button, into a context menu openable
+     * via an overflow button at the end of the button row.
+     * <p>
+     * To add content to the sub menu opened by clicking the root level item,
+     * use {@link MenuItem#getSubMenu()}.
+     *
+     * @param text
+     *            the text content for the new item
+     * @return the added {@link MenuItem} component
+     */
+    public MenuItem addItem(String text) {
+        MenuBar menuBar = getMenuBarForNewItem();
+        return createMenuItem(menuBar, text);
+    }
+
+    /**
+     * Adds the given component to the toolbar.
+     * <p>
+     * Please note, that there is no {@link MenuItem} created. Modify the component directly if necessary.
+     * </p>
+     * @param component
+     *            the component to add inside new item
+     */
+    public void addItem(Component component) {
+        add(component);
+    }
+
+    /**
+     * Creates a new {@link MenuItem} component with the provided text content
+     * and click listener and adds it to the root level of this menu bar.
+     * <p>
+     * The added {@link MenuItem} component is placed inside a button in the
+     * menu bar. If this button overflows the menu bar horizontally, the
+     * {@link MenuItem} is moved out of the button, into a context menu openable
+     * via an overflow button at the end of the button row.
+     * <p>
+     * To add content to the sub menu opened by clicking the root level item,
+     * use {@link MenuItem#getSubMenu()}.
+     *
+     * @param text
+     *            the text content for the new item
+     * @param clickListener
+     *            the handler for clicking the new item, can be {@code null} to
+     *            not add listener
+     * @return the added {@link MenuItem} component
+     */
+    public MenuItem addItem(String text,
+                            ComponentEventListener<ClickEvent<MenuItem>> clickListener) {
+        return addItem(text, clickListener, clickOptions);
+    }
+
+    /**
+     * Creates a new {@link MenuItem} component with the provided text content
+     * and click listener and adds it to the root level of this menu bar. Clicks
+     * are sent to the server as defined by the given click options instead of
+     * the {@link #setClickOptions(ToolbarClickOptions) toolbar-wide ones}.
+     *
+     * @param text
+     *            the text content for the new item
+     * @param clickListener
+     *            the handler for clicking the new item, can be {@code null} to
+     *            not add listener
+     * @param clickOptions
+     *            the click options for the new item, not {@code null}
+     * @return the added {@link MenuItem} component
+     */
+    public MenuItem addItem(String text, ComponentEventListener<ClickEvent<MenuItem>> clickListener,
+                            ToolbarClickOptions clickOptions) {
+        Objects.requireNonNull(clickOptions, "Click options must not be null");
+        MenuItem item = addItem(text);
+        addItemClickListener(item, clickListener, clickOptions);
+        return item;
+    }
+
+    /**
+     * A convenience method to add a component and register a click listener on it. However, if the given component
+     * provides a built-in click listener, it is recommended, to use that instead and add the component using
+     * {@link #addItem(Component)} (e.g. for {@link Button}.
+     * <p>
+     * Please note, that there is no {@link MenuItem} created. Modify the component directly if necessary.
+     * </p>
+     *
+     * @param component
+     *            the component to add inside the added menu item
+     * @param clickListener
+     *            the handler for clicking the new item, can be {@code null} to
+     *            not add listener
+     */
+    public <T extends Component> void addItem(T component,
+                                              ComponentEventListener<ClickEvent<T>> clickListener) {
+        addItem(component, clickListener, clickOptions);
+    }
+
+    /**
+     * A convenience method to add a component and register a click listener on it. Clicks are sent to the
+     * server as defined by the given click options instead of the
+     * {@link #setClickOptions(ToolbarClickOptions) toolbar-wide ones}.
+     *
+     * @param component
+     *            the component to add inside the added menu item
+     * @param clickListener
+     *            the handler for clicking the new item, can be {@code null} to
+     *            not add listener
+     * @param clickOptions
+     *            the click options for the component, not {@code null}
+     */
+    public <T extends Component> void addItem(T component, ComponentEventListener<ClickEvent<T>> clickListener,
+                                              ToolbarClickOptions clickOptions) {
+        Objects.requireNonNull(clickOptions, "Click options must not be null");
+        addItemClickListener(component, clickListener, clickOptions);
+        add(component);
+    }
+
+    /**
+     * Sets how clicks on items are sent to the server: debounced or throttled, disabling the item until the
+     * server responds, and with or without event data. See {@link ToolbarClickOptions}.
+     * <p>
+     * Applies to click listeners registered afterwards via {@link #addItem(String, ComponentEventListener)},
+     * {@link #addItem(Component, ComponentEventListener)}, their overloads and {@link #addItems(Collection)},
+     * unless the item has click options of its own.
+     *
+     * @param clickOptions
+     *            the click options, not {@code null}
+     */
+    public void setClickOptions(ToolbarClickOptions clickOptions) {
+        this.clickOptions = Objects.requireNonNull(clickOptions, "Click options must not be null");
+    }
+
+    /**
+     * Gets how clicks on items are sent to the server.
+     *
+     * @return the toolbar-wide click options
+     */
+    public ToolbarClickOptions getClickOptions() {
+        return clickOptions;
+    }
+
+    /**
+     * Creates a new {@link MenuItem} component with the provided text content
+     * and the tooltip text and adds it to the root level of this menu bar.
+     * <p>
+     * The added {@link MenuItem} component is placed inside a button in the
+     * menu bar. If this button overflows the menu bar horizontally, the
+     * {@link MenuItem} is moved out of the button, into a context menu openable
+     * via an overflow button at the end of the button row.
+     * <p>
+     * To add content to the sub menu opened by clicking the root level item,
+     * use {@link MenuItem#getSubMenu()}.
+     *
+     * @param text
+     *            the text content for the new item
+     * @param tooltipText
+     *            the tooltip text for the new item
+     * @return the added {@link MenuItem} component
+     */
+    public MenuItem addItem(String text, String tooltipText) {
+        var item = addItem(text);
+        setMenuItemTooltipText(item, tooltipText);
+        return item;
+    }
+
+    /**
+     * Creates a new {@link MenuItem} component with the provided text content
+     * and the tooltip text and click listener and adds it to the root level of
+     * this menu bar.
+     * <p>
+     * The added {@link MenuItem} component is placed inside a button in the
+     * menu bar. If this button overflows the menu bar horizontally, the
+     * {@link MenuItem} is moved out of the button, into a context menu openable
+     * via an overflow button at the end of the button row.
+     * <p>
+     * To add content to the sub menu opened by clicking the root level item,
+     * use {@link MenuItem#getSubMenu()}.
+     *
+     * @param text
+     *            the text content for the new item
+     * @param tooltipText
+     *            the tooltip text for the new item
+     * @param clickListener
+     *            the handler for clicking the new item, can be {@code null} to
+     *            not add listener
+     * @return the added {@link MenuItem} component
+     */
+    public MenuItem addItem(String text, String tooltipText,
+                            ComponentEventListener<ClickEvent<MenuItem>> clickListener) {
+        var item = addItem(text, clickListener);
+        setMenuItemTooltipText(item, tooltipText);
+        return item;
+    }
+
+    /**
+     * Creates new {@link MenuItem} components for all given item specs and adds them to the root level of
+     * this menu bar, in the given order.
+     * <p>
+     * This is equivalent to calling {@link #addItem(String, Component)} and its overloads for every spec,
+     * but builds all items in one pass and attaches all new children to this toolbar at once, which is
+     * considerably cheaper for large toolbars.
+     *
+     * @param itemSpecs
+     *            the specs of the items to add, not {@code null}
+     * @return the added {@link MenuItem} components, in the order of the given specs
+     */
+    public List<MenuItem> addItems(Collection<ToolbarItemSpec> itemSpecs) {
+        Objects.requireNonNull(itemSpecs, "Item specs must not be null");
+
+        List<MenuItem> items = new ArrayList<>(itemSpecs.size());
+        List<Component> newChildren = new ArrayList<>(isSharedMenuBarMode ? 1 : itemSpecs.size());
+
+        MenuBar shared = null;
+        if (isSharedMenuBarMode) {
+            if (sharedMenuBar == null || !isOwnChild(sharedMenuBar)) {
+                sharedMenuBar = createMenuBar();
+                newChildren.add(sharedMenuBar);
+            }
+            shared = sharedMenuBar;
+        }
+
+        for (ToolbarItemSpec spec : itemSpecs) {
+            MenuBar menuBar = shared;
+            if (menuBar == null) {
+                menuBar = createMenuBar();
+                newChildren.add(menuBar);
+            }
+
+            var iconFactory = spec.getIconFactory();
+            MenuItem item = iconFactory != null
+                    ? createMenuItem(menuBar, spec.getText(), iconFactory.get())
+                    : createMenuItem(menuBar, spec.getText());
+            if (spec.getTooltipText() != null) {
+                setMenuItemTooltipText(menuBar, item, spec.getTooltipText());
+            }
+            if (spec.getClickListener() != null) {
+                addItemClickListener(item, spec.getClickListener(),
+                        spec.getClickOptions() != null ? spec.getClickOptions() : clickOptions);
+            }
+            if (!spec.isEnabled()) {
+                item.setEnabled(false);
+            }
+            if (!spec.isVisible()) {
+                item.setVisible(false);
+            }
+            items.add(item);
+        }
+
+        // attach all new menu bars with a single child list update
+        if (!newChildren.isEmpty()) {
+            getElement().appendChild(newChildren.stream().map(Component::getElement).toArray(Element[]::new));
+            newChildren.forEach(this::indexChild);
+        }
+        return items;
+    }
+
+    /**
+     * Creates a new {@link MenuItem} component with the provided text content and adds it to the root
+     * level of this menu bar. The sub menu of the item is built by the given provider when it is opened
+     * for the first time, see {@link #setLazySubMenu(MenuItem, SerializableConsumer, boolean)}.
+     *
+     * @param text
+     *            the text content for the new item
+     * @param subMenuProvider
+     *            adds the content to the sub menu of the new item, not {@code null}
+     * @return the added {@link MenuItem} component
+     */
+    public MenuItem addLazyItem(String text, SerializableConsumer<SubMenu> subMenuProvider) {
+        MenuItem item = addItem(text);
+        setLazySubMenu(item, subMenuProvider, true);
+        return item;
+    }
+
+    /**
+     * Creates a new {@link MenuItem} component with the provided text content and icon and adds it to the
+     * root level of this menu bar. The sub menu of the item is built by the given provider when it is
+     * opened for the first time, see {@link #setLazySubMenu(MenuItem, SerializableConsumer, boolean)}.
+     *
+     * @param text
+     *            the text content for the new item
+     * @param icon
+     *            the icon for the new item
+     * @param subMenuProvider
+     *            adds the content to the sub menu of the new item, not {@code null}
+     * @return the added {@link MenuItem} component
+     */
+    public MenuItem addLazyItem(String text, Component icon, SerializableConsumer<SubMenu> subMenuProvider) {
+        MenuItem item = addItem(text, icon);
+        setLazySubMenu(item, subMenuProvider, true);
+        return item;
+    }
+
+    /**
+     * Lets the sub menu of the given item be built when it is opened, instead of up front. Until then,
+     * the sub menu only contains a disabled placeholder item, so neither the server-side component tree
+     * nor the client contain the actual sub items. Any existing sub menu content is replaced.
+     * <p>
+     * The provider is invoked when the sub menu opens in the browser. As this requires a round trip, the
+     * placeholder may be visible for a moment when opening the sub menu the first time.
+     * <p>
+     * The provider may itself use this method for items of the sub menu, to build deep menus level by
+     * level.
+     *
+     * @param item
+     *            the item to build the sub menu for, at any level of a {@link MenuBar} of this toolbar, not
+     *            {@code null}
+     * @param subMenuProvider
+     *            adds the content to the given sub menu, not {@code null}
+     * @param cached
+     *            {@code true} to keep the built sub menu until it is evicted via
+     *            {@link #evictLazySubMenu(MenuItem)}, {@code false} to rebuild it on every opening
+     * @throws IllegalArgumentException
+     *             if the item is not part of this toolbar
+     */
+    public void setLazySubMenu(MenuItem item, SerializableConsumer<SubMenu> subMenuProvider, boolean cached) {
+        Objects.requireNonNull(item, "Item must not be null");
+        MenuBar menuBar = findMenuBarContaining(item)
+                .orElseThrow(() -> new IllegalArgumentException("Item is not part of this toolbar"));
+        LazySubMenu.install(menuBar, item, subMenuProvider, cached);
+    }
+
+    /**
+     * Drops the built sub menu of an item configured via
+     * {@link #setLazySubMenu(MenuItem, SerializableConsumer, boolean)}, so that it is built again when it
+     * is opened the next time. Does nothing for other items.
+     *
+     * @param item
+     *            the item to evict the sub menu of
+     */
+    public void evictLazySubMenu(MenuItem item) {
+        LazySubMenu lazySubMenu = LazySubMenu.get(item);
+        if (lazySubMenu != null && lazySubMenu.isPopulated()) {
+            lazySubMenu.reset();
+        }
+    }
+
+    /**
+     * Sets the event which opens the sub menus of the root level buttons.
+     *
+     * @param openOnHover
+     *            {@code true} to make the sub menus open on hover (mouseover),
+     *            {@code false} to make them openable by clicking
+     */
+    public void setOpenOnHover(boolean openOnHover) {
+        this.isOpenHover = openOnHover;
+        markMenuBarSettingsDirty();
+    }
+
+    /**
+     * Gets whether the sub menus open by clicking or hovering on the root level
+     * buttons.
+     *
+     * @return {@code true} if the sub menus open by hovering on the root level
+     *         buttons, {@code false} if they open by clicking
+     */
+    public boolean isOpenOnHover() {
+        return isOpenHover;
+    }
+
+    /**
+     * Sets reverse collapse order for the menu bar.
+     *
+     * @param reverseCollapseOrder
+     *            If {@code true}, the buttons will be collapsed into the
+     *            overflow menu starting from the "start" end of the bar instead
+     *            of the "end".
+     */
+    public void setReverseCollapseOrder(boolean reverseCollapseOrder) {
+        getElement().setProperty("reverseCollapse", reverseCollapseOrder);
+    }
+
+    /**
+     * Gets whether the menu bar uses reverse collapse order.
+     *
+     * @return {@code true} if the buttons will be collapsed into the overflow
+     *         menu starting from the "start" end of the bar instead of the
+     *         "end".
+     *
+     */
+    public boolean isReverseCollapseOrder() {
+        return getElement().getProperty("reverseCollapse", false);
+    }
+
+    /**
+     * Provide a custom button to be used as the overflow button. This will replace any other overflow
+     * button that may have been set previously.
+     *
+     * @param overflowButton the button to use as the overflow button, or {@code null} to remove any existing overflow button
+     *                       and revert to the default overflow button
+     */
+    public void setOverflowButton(Button overflowButton) {
+        // remove current overflow button if it exists
+        ensureIndexes();
+        if (this.overflowButton != null && isOwnChild(this.overflowButton)) {
+            remove(this.overflowButton);
+        }
+        this.overflowButton = null;
+
+        // add new button if provided
+        if (overflowButton != null) {
+            // must set slot to overflow-button in order for component to recognize it as the overflow button
+            overflowButton.getElement().setAttribute("slot", OVERFLOW_BUTTON_SLOT);
+            add(overflowButton);
+        }
+    }
+
+    /**
+     * Registers a click listener on an item, applying the given click options. Without options, the
+     * built-in click support of the component is used, if any. Components without built-in click support
+     * and items sending clicks without event data get a plain DOM listener instead.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private <T extends Component> void addItemClickListener(T component,
+                                                            ComponentEventListener<ClickEvent<T>> clickListener,
+                                                            ToolbarClickOptions options) {
+        if (clickListener == null) {
+            return;
+        }
+
+        // unlike Button.setDisableOnClick, which also disables the button on the server until the application
+        // enables it again, every item type is only disabled in the browser and enabled again after the click
+        boolean disableInClient = options.isDisableOnClick();
+        if (disableInClient && ComponentUtil.getData(component, ClientDisabler.class) == null) {
+            ClientDisabler disabler = new ClientDisabler(component);
+            ComponentUtil.setData(component, ClientDisabler.class, disabler);
+            disabler.install();
+        }
+
+        boolean builtInClickSupport = component instanceof ClickNotifier || component instanceof MenuItem;
+        if (builtInClickSupport && options.equals(ToolbarClickOptions.defaults())) {
+            // if the component provides a click listener integration, we use that
+            if (component instanceof MenuItem item) {
+                item.addClickListener((ComponentEventListener) clickListener);
+            } else {
+                ((ClickNotifier) component).addClickListener(clickListener);
+            }
+        } else if (builtInClickSupport && !options.isMinimalEventData()) {
+            boolean reEnable = disableInClient;
+            ComponentEventListener<ClickEvent<T>> listener = reEnable
+                    ? new ReEnablingClickListener<>(clickListener) : clickListener;
+            Class<ClickEvent<T>> eventType = (Class<ClickEvent<T>>) (Class<?>) ClickEvent.class;
+            ComponentUtil.addListener(component, eventType, listener,
+                    registration -> applyClickOptions(registration, options, reEnable));
+        } else {
+            ClickForwarder<T> forwarder = new ClickForwarder<>(component, clickListener, disableInClient);
+            List<ClickForwarder<?>> forwarders = (List<ClickForwarder<?>>) ComponentUtil.getData(component,
+                    CLICK_FORWARDERS_DATA_KEY);
+            if (forwarders == null) {
+                forwarders = new ArrayList<>();
+                ComponentUtil.setData(component, CLICK_FORWARDERS_DATA_KEY, forwarders);
+            }
+            forwarders.add(forwarder);
+            applyClickOptions(component.getElement().addEventListener("click", forwarder), options, disableInClient);
+        }
+    }
+
+    private static void applyClickOptions(DomListenerRegistration registration, ToolbarClickOptions options,
+                                          boolean disableInClient) {
+        if (options.getDebounce() > 0) {
+            // let the first click through right away, and drop the ones following it within the window
+            registration.debounce(options.getDebounce(), DebouncePhase.LEADING);
+        }
+        if (options.getThrottle() > 0) {
+            registration.throttle(options.getThrottle());
+        }
+        if (disableInClient) {
+            registration.setFilter(DISABLE_ON_CLICK_FILTER);
+        }
+    }
+
+    /**
+     * Clicks the given item on the server, notifying the same click listeners as a click in the browser.
+     * For a {@link MenuBar} with a single root item, that item is clicked.
+     *
+     * @param item
+     *            the item to click
+     */
+    @SuppressWarnings("unchecked")
+    static void clickItem(Component item) {
+        Component target = item;
+        if (item instanceof MenuBar menuBar && menuBar.getItems().size() == 1) {
+            target = menuBar.getItems().get(0);
+        }
+        ComponentUtil.fireEvent(target, createClickEvent(target, false));
+
+        List<ClickForwarder<?>> forwarders = (List<ClickForwarder<?>>) ComponentUtil.getData(target,
+                CLICK_FORWARDERS_DATA_KEY);
+        if (forwarders != null) {
+            new ArrayList<>(forwarders).forEach(forwarder -> forwarder.click(false));
+        }
+    }
+
+    /**
+     * Creates a click event without any event data, like the mouse position or the pressed modifier keys.
+     * Server-side clicks are not from the client, so that listeners do not answer them in the browser.
+     */
+    private static <T extends Component> ClickEvent<T> createClickEvent(T source, boolean fromClient) {
+        return new ClickEvent<>(source, fromClient, -1, -1, -1, -1, 1, -1, false, false, false, false);
+    }
+
+    /**
+     * Runs the {@link ToolbarClientAction} of the given item in the browser, or clicks the item on the
+     * server if it has none. For a {@link MenuBar} with a single root item, the action of that item is run.
+     *
+     * @param item
+     *            the item to activate
+     */
+    private static void activateItem(Component item) {
+        Component target = item;
+        if (item instanceof MenuBar menuBar && menuBar.getItems().size() == 1) {
+            target = menuBar.getItems().get(0);
+        }
+        if (ComponentUtil.getData(target, ClientActionInstaller.class) != null) {
+            target.getElement().executeJs(
+                    "this.__toolbarClientAction && this.__toolbarClientAction(new MouseEvent('click'))");
+        } else {
+            clickItem(target);
+        }
+    }
+
+    /**
+     * Enables an element in the browser again that has been disabled on click by a {@link ClientDisabler},
+     * unless it has been disabled on the server in the meantime.
+     */
+    private static void reEnableInClient(Component component) {
+        if (component.getElement().isEnabled()) {
+            component.getElement().executeJs(DISABLE_TARGET.formatted("this") + ".disabled = false");
+        }
+    }
+
+    /**
+     * Returns the {@link MenuBar} a new item should be added to. Depending on the
+     * {@link #isSharedMenuBarMode() mode} this is either the shared {@link MenuBar} or a newly created
+     * one. In both cases the returned {@link MenuBar} is already a child of this toolbar.
+     */
+    private MenuBar getMenuBarForNewItem() {
+        if (!isSharedMenuBarMode) {
+            MenuBar menuBar = createMenuBar();
+            add(menuBar);
+            return menuBar;
+        }
+
+        // (re)create the shared menu bar if it has not been created yet or was removed from this toolbar
+        if (sharedMenuBar == null || !isOwnChild(sharedMenuBar)) {
+            sharedMenuBar = createMenuBar();
+            add(sharedMenuBar);
+        }
+        return sharedMenuBar;
+    }
+
+    private MenuBar createMenuBar() {
+        MenuBar menuBar = new ToolbarMenuBar(this);
+        applyMenuBarSettings(menuBar);
+        return menuBar;
+    }
+
+    // ==================================================
+    // Propagation of toolbar-wide settings to MenuBar children
+    // ==================================================
+
+    @Override
+    protected void onAttach(AttachEvent attachEvent) {
+        super.onAttach(attachEvent);
+        asyncItemUpdates.attached(attachEvent.getUI());
+        asyncItemChecks.evaluateAll();
+
+        // changes made while detached, or scheduled before a detach, have not been flushed yet
+        if (isMenuBarSettingsDirty) {
+            attachEvent.getUI().beforeClientResponse(this, context -> flushMenuBarSettings());
+        }
+
+        if (!shortcutItems.isEmpty()) {
+            installShortcutListener();
+        }
+
+        if (isCollapsedItemsMenuDirty) {
+            attachEvent.getUI().beforeClientResponse(this, context -> flushCollapsedItemsMenu());
+        }
+    }
+
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        asyncItemUpdates.detached();
+        super.onDetach(detachEvent);
+    }
+
+    /**
+     * Records that the toolbar-wide MenuBar settings changed. Existing MenuBar children are updated once,
+     * right before the response is sent to the client, no matter how many settings are changed during the
+     * request. MenuBars created in the meantime already get the current settings on creation.
+     */
+    private void markMenuBarSettingsDirty() {
+        if (isMenuBarSettingsDirty) {
+            return;
+        }
+        isMenuBarSettingsDirty = true;
+        getUI().ifPresent(ui -> ui.beforeClientResponse(this, context -> flushMenuBarSettings()));
+    }
+
+    private void flushMenuBarSettings() {
+        if (!isMenuBarSettingsDirty) {
+            return;
+        }
+        isMenuBarSettingsDirty = false;
+
+        for (Iterator<MenuBar> it = ownedMenuBars(); it.hasNext(); ) {
+            applyMenuBarSettings(it.next());
+        }
+    }
+
+    /**
+     * Applies the toolbar-wide settings to the given MenuBar, only touching the values that differ, so
+     * that settings that were toggled back and forth do not result in any change sent to the client.
+     */
+    private void applyMenuBarSettings(MenuBar menuBar) {
+        if (menuBar.isOpenOnHover() != isOpenHover) {
+            menuBar.setOpenOnHover(isOpenHover);
+        }
+        if (menuBar.hasThemeName(DROPDOWN_INDICATORS_THEME) != isDropdownIndicatorShown) {
+            if (isDropdownIndicatorShown)
+                menuBar.addThemeNames(DROPDOWN_INDICATORS_THEME);
+            else
+                menuBar.removeThemeNames(DROPDOWN_INDICATORS_THEME);
+        }
+    }
+
+    private MenuItem createMenuItem(MenuBar menuBar, String text) {
+        MenuItem item = menuBar.addItem(text);
+        ensureIndexes();
+        menuItemOwners.put(item, menuBar);
+        rootItemsChanged(menuBar);
+        return item;
+    }
+
+    /**
+     * Creates a root level item with an icon in the given MenuBar, rendered as a button inside the item.
+     */
+    private MenuItem createMenuItem(MenuBar menuBar, String text, Component icon) {
+        Button button = new Button(text, icon);
+        button.addThemeNames(ITEM_BUTTON_THEMES);
+        MenuItem item = menuBar.addItem(button);
+        ensureIndexes();
+        menuItemOwners.put(item, menuBar);
+        rootItemsChanged(menuBar);
+        return item;
+    }
+
+    private void setMenuItemTooltipText(MenuItem item, String tooltipText) {
+        findOwningMenuBar(item).ifPresentOrElse(
+                menuBar -> {
+                    setMenuItemTooltipText(menuBar, item, tooltipText);
+                },
+                () -> {
+                    throw new IllegalStateException("MenuItem is not a child of a MenuBar");
+                });
+    }
+
+    private void setMenuItemTooltipText(MenuBar menuBar, MenuItem item, String tooltipText) {
+        menuBar.setTooltipText(item, tooltipText);
+        updateSearchIndex(menuBar);
+    }
+
+    // ==================================================
+    // Child indexes
+    // ==================================================
+
+    @Override
+    public void add(Collection<Component> components) {
+        HasOrderedComponents.super.add(components);
+        components.forEach(this::indexChild);
+    }
+
+    @Override
+    public void addComponentAtIndex(int index, Component component) {
+        HasOrderedComponents.super.addComponentAtIndex(index, component);
+        indexChild(component);
+    }
+
+    @Override
+    public void replace(Component oldComponent, Component newComponent) {
+        HasOrderedComponents.super.replace(oldComponent, newComponent);
+
+        // replace may swap both components, so check which of them are still children
+        for (Component component : new Component[] { oldComponent, newComponent }) {
+            if (component == null) {
+                continue;
+            }
+            if (isOwnChild(component)) {
+                indexChild(component);
+            } else {
+                unindexChild(component);
+            }
+        }
+    }
+
+    @Override
+    public void remove(Collection<Component> components) {
+        HasOrderedComponents.super.remove(components);
+        components.forEach(this::unindexChild);
+    }
+
+    @Override
+    public void removeAll() {
+        HasOrderedComponents.super.removeAll();
+        ensureIndexes();
+        menuBars.clear();
+        menuItemOwners.clear();
+        overflowButton = null;
+        searchIndex = null;
+        asyncItemChecks.removeAll();
+        if (!shortcutItems.isEmpty()) {
+            shortcutItems.clear();
+            itemShortcuts.clear();
+            updateShortcutCombinations();
+        }
+        // the menu of collapsed items has been removed as well
+        markCollapsedItemsMenuDirty();
+    }
+
+    /**
+     * Gets the {@link MenuBar} children of this toolbar from the index. Intended for testing.
+     *
+     * @return the {@link MenuBar} children in the order they were added
+     */
+    List<MenuBar> getOwnedMenuBars() {
+        ensureIndexes();
+        List<MenuBar> result = new ArrayList<>(menuBars.size());
+        ownedMenuBars().forEachRemaining(result::add);
+        return result;
+    }
+
+    /**
+     * Gets the {@link MenuBar} child of this toolbar that hosts the given item, if the item was
+     * added via the MenuBar-like API of this toolbar.
+     *
+     * @param item the item to look up
+     * @return the {@link MenuBar} hosting the item, or an empty optional
+     */
+    Optional<MenuBar> findOwningMenuBar(MenuItem item) {
+        ensureIndexes();
+        MenuBar menuBar = menuItemOwners.get(item);
+        if (menuBar != null && !isOwnChild(menuBar)) {
+            // the menu bar has been removed from this toolbar without going through this toolbar's api
+            unindexChild(menuBar);
+            menuBar = null;
+        }
+        return Optional.ofNullable(menuBar);
+    }
+
+    /**
+     * Gets the items of this toolbar, i.e. its children except for a {@link #setOverflowButton(Button) custom
+     * overflow button}, which is slotted separately and never collapses, and the menu of the items collapsed
+     * in {@link #setBreakpointMode(boolean) breakpoint mode}.
+     *
+     * @return the items, in the order of this toolbar
+     */
+    List<Component> getItems() {
+        Component button = getOverflowButton().orElse(null);
+        return getChildren().filter(child -> child != button && child != collapsedItemsMenu).toList();
+    }
+
+    /**
+     * Gets the current overflow button, if one has been set. Intended for testing.
+     *
+     * @return the custom overflow button or an empty optional
+     */
+    Optional<Component> getOverflowButton() {
+        ensureIndexes();
+        if (overflowButton != null && !isOwnChild(overflowButton)) {
+            overflowButton = null;
+        }
+        return Optional.ofNullable(overflowButton);
+    }
+
+    /**
+     * Iterates the indexed {@link MenuBar} children. Entries of menu bars that have been removed without
+     * going through this toolbar (e.g. via {@link Component#removeFromParent()}) are pruned on the way.
+     */
+    private Iterator<MenuBar> ownedMenuBars() {
+        ensureIndexes();
+        // prune first, so that callers get a plain iterator they can use without further checks
+        for (Iterator<MenuBar> it = menuBars.iterator(); it.hasNext(); ) {
+            MenuBar menuBar = it.next();
+            if (!isOwnChild(menuBar)) {
+                it.remove();
+                unindexMenuItems(menuBar);
+            }
+        }
+        return menuBars.iterator();
+    }
+
+    private void indexChild(Component component) {
+        if (component == collapsedItemsMenu) {
+            return;
+        }
+        ensureIndexes();
+        if (component.getElement().hasAttribute(COLLAPSE_BELOW_ATTRIBUTE)) {
+            markCollapsedItemsMenuDirty();
+        }
+        updateSearchIndex(component);
+        if (component instanceof MenuBar menuBar) {
+            menuBars.add(menuBar);
+        }
+        if (OVERFLOW_BUTTON_SLOT.equals(component.getElement().getAttribute("slot"))) {
+            overflowButton = component;
+        }
+    }
+
+    private void unindexChild(Component component) {
+        ensureIndexes();
+        dropItemState(component);
+        if (component.getElement().hasAttribute(COLLAPSE_BELOW_ATTRIBUTE)) {
+            markCollapsedItemsMenuDirty();
+        }
+        if (searchIndex != null) {
+            searchIndex.remove(component);
+        }
+        if (component instanceof MenuBar menuBar) {
+            menuBars.remove(menuBar);
+            unindexMenuItems(menuBar);
+        }
+        if (component == overflowButton) {
+            overflowButton = null;
+        }
+    }
+
+    /**
+     * Drops the owner entries of the items of a removed {@link MenuBar}. Items removed from the
+     * {@link MenuBar} directly have already been dropped by {@link #menuItemsRemoved(MenuBar, List)}, so its
+     * remaining items are exactly the ones indexed for it.
+     */
+    private void unindexMenuItems(MenuBar menuBar) {
+        for (MenuItem item : menuBar.getItems()) {
+            menuItemOwners.remove(item, menuBar);
+        }
+    }
+
+    /**
+     * Drops the owner entries, checks and shortcuts of items removed directly from a {@link MenuBar} created
+     * by this toolbar.
+     */
+    private void menuItemsRemoved(MenuBar menuBar, List<MenuItem> items) {
+        ensureIndexes();
+        for (MenuItem item : items) {
+            menuItemOwners.remove(item, menuBar);
+            dropItemState(item);
+        }
+        rootItemsChanged(menuBar);
+    }
+
+    /**
+     * Updates the search index entry of a {@link MenuBar} after root items were added to or removed from it,
+     * and its entries in the collapsed items menu if it has a breakpoint.
+     */
+    private void rootItemsChanged(MenuBar menuBar) {
+        updateSearchIndex(menuBar);
+        if (menuBar.getElement().hasAttribute(COLLAPSE_BELOW_ATTRIBUTE)) {
+            markCollapsedItemsMenuDirty();
+        }
+    }
+
+    /**
+     * Drops the checks and shortcuts of a removed child, and of the menu items of a removed {@link MenuBar},
+     * so that they are neither evaluated nor dispatched anymore and do not keep the components alive.
+     */
+    private void dropItemState(Component component) {
+        List<Component> removedItems = new ArrayList<>();
+        removedItems.add(component);
+        if (component instanceof MenuBar menuBar) {
+            addMenuItems(menuBar.getItems(), removedItems);
+        }
+
+        boolean shortcutsChanged = false;
+        for (Component item : removedItems) {
+            asyncItemChecks.remove(item);
+            shortcutsChanged |= removeShortcutEntries(item);
+        }
+        if (shortcutsChanged) {
+            updateShortcutCombinations();
+        }
+    }
+
+    private static void addMenuItems(List<MenuItem> items, List<Component> result) {
+        for (MenuItem item : items) {
+            result.add(item);
+            if (item.isParentItem()) {
+                addMenuItems(item.getSubMenu().getItems(), result);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the child indexes from the children after deserialization.
+     */
+    private void ensureIndexes() {
+        if (menuBars != null) {
+            return;
+        }
+        menuBars = new LinkedHashSet<>();
+        menuItemOwners = new HashMap<>();
+        overflowButton = null;
+
+        getChildren().forEach(this::indexChild);
+        for (MenuBar menuBar : menuBars) {
+            // only the items of menu bars created by this toolbar are indexed, like when they were added
+            if (menuBar instanceof ToolbarMenuBar) {
+                for (MenuItem item : menuBar.getItems()) {
+                    menuItemOwners.put(item, menuBar);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given component is part of this toolbar: a child, or a component nested in a child,
+     * like the {@link MenuItem} of a {@link MenuBar} child.
+     */
+    boolean containsItem(Component component) {
+        if (component instanceof MenuItem menuItem) {
+            return findMenuBarContaining(menuItem).isPresent();
+        }
+        for (Element element = component.getElement(); element != null; element = element.getParent()) {
+            if (getElement().equals(element.getParent())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the {@link MenuBar} child of this toolbar that contains the given item at any level.
+     */
+    private Optional<MenuBar> findMenuBarContaining(MenuItem item) {
+        // menu items are not in the element tree of their menu bar, so look them up in the menus
+        Optional<MenuBar> owner = findOwningMenuBar(item);
+        if (owner.isPresent()) {
+            return owner;
+        }
+        for (Iterator<MenuBar> it = ownedMenuBars(); it.hasNext(); ) {
+            MenuBar menuBar = it.next();
+            if (containsMenuItem(menuBar.getItems(), item)) {
+                return Optional.of(menuBar);
+            }
+        }
         return Optional.empty();
     }
 
+    private static boolean containsMenuItem(List<MenuItem> items, MenuItem menuItem) {
+        for (MenuItem item : items) {
+            if (item == menuItem || (item.isParentItem() && containsMenuItem(item.getSubMenu().getItems(), menuItem))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void requireItem(Component item) {
+        Objects.requireNonNull(item, "Item must not be null");
+        if (!containsItem(item)) {
+            throw new IllegalArgumentException("Item is not part of this toolbar");
+        }
+    }
+
+    private boolean isOwnChild(Component component) {
+        return getElement().equals(component.getElement().getParent());
+    }
+
+    /**
+     * Forwards DOM click events of a component without built-in click support, or of an item sending clicks
+     * without event data, to a click listener. A named class instead of a lambda keeps the serialized form
+     * of each registration small.
+     */
+    private static class ClickForwarder<T extends Component> implements DomEventListener {
+        private final T component;
+        private final ComponentEventListener<ClickEvent<T>> clickListener;
+        private final boolean reEnable;
+
+        private ClickForwarder(T component, ComponentEventListener<ClickEvent<T>> clickListener, boolean reEnable) {
+            this.component = component;
+            this.clickListener = clickListener;
+            this.reEnable = reEnable;
+        }
+
+        @Override
+        public void handleEvent(DomEvent event) {
+            click(true);
+        }
+
+        private void click(boolean fromClient) {
+            clickListener.onComponentEvent(createClickEvent(component, fromClient));
+            if (fromClient && reEnable) {
+                reEnableInClient(component);
+            }
+        }
+    }
+
+    /**
+     * A {@link MenuBar} created by the toolbar for its MenuBar-like API, which tells the toolbar about items
+     * removed from it directly, so that their owner entries are dropped right away.
+     */
+    private static class ToolbarMenuBar extends MenuBar {
+        private final ToolbarLayout toolbar;
+
+        private ToolbarMenuBar(ToolbarLayout toolbar) {
+            this.toolbar = toolbar;
+        }
+
+        @Override
+        public void remove(MenuItem... items) {
+            super.remove(items);
+            toolbar.menuItemsRemoved(this, Arrays.asList(items));
+        }
+
+        @Override
+        public void removeAll() {
+            List<MenuItem> items = new ArrayList<>(getItems());
+            super.removeAll();
+            toolbar.menuItemsRemoved(this, items);
+        }
+    }
+
+    /**
+     * Activates an item from its entry in the menu of items collapsed in breakpoint mode, if the item is
+     * still visible and enabled, and the child it belongs to is still a child of the toolbar. The item is the
+     * child itself or one of the root items of a shared {@link MenuBar}.
+     */
+    private static class CollapsedItemClickListener implements ComponentEventListener<ClickEvent<MenuItem>> {
+        private final ToolbarLayout toolbar;
+        private final Component child;
+        private final Component target;
+
+        private CollapsedItemClickListener(ToolbarLayout toolbar, Component child, Component target) {
+            this.toolbar = toolbar;
+            this.child = child;
+            this.target = target;
+        }
+
+        @Override
+        public void onComponentEvent(ClickEvent<MenuItem> event) {
+            if (toolbar.isOwnChild(child) && target.isVisible() && isItemEnabled(target)) {
+                activateItem(target);
+            }
+        }
+    }
+
+    /**
+     * Installs the click handler of a {@link ToolbarClientAction} on an item element, again whenever the
+     * element is attached, as a new client-side element is created then. The handler is also stored as
+     * {@code __toolbarClientAction} on the element, for {@link #activateItem(Component)} to run it.
+     */
+    private static class ClientActionInstaller implements ElementAttachListener {
+        private final Component item;
+        private final ToolbarClientAction clientAction;
+        private Registration attachRegistration;
+
+        private ClientActionInstaller(Component item, ToolbarClientAction clientAction) {
+            this.item = item;
+            this.clientAction = clientAction;
+        }
+
+        private void install() {
+            attachRegistration = item.getElement().addAttachListener(this);
+            if (item.getElement().getNode().isAttached()) {
+                addClientHandler();
+            }
+        }
+
+        private void remove() {
+            attachRegistration.remove();
+            item.getElement().executeJs("if (this.__toolbarClientAction) {"
+                    + "  this.removeEventListener('click', this.__toolbarClientAction);"
+                    + "  delete this.__toolbarClientAction;"
+                    + "}");
+        }
+
+        @Override
+        public void onAttach(ElementAttachEvent event) {
+            addClientHandler();
+        }
+
+        private void addClientHandler() {
+            item.getElement().executeJs("const item = this; const arg = $0;"
+                    + "if (item.__toolbarClientAction) { item.removeEventListener('click', item.__toolbarClientAction); }"
+                    + "item.__toolbarClientAction = (event) => { " + clientAction.getScript() + " };"
+                    + "item.addEventListener('click', item.__toolbarClientAction);", clientAction.getArgument());
+        }
+    }
+
+    /**
+     * Disables an item in the browser when it is clicked, again whenever the element is attached, as a new
+     * client-side element is created then. For a root {@link MenuItem}, the button rendered for it by the
+     * {@link MenuBar} is disabled, as the item element itself has no disabled state of its own there. The
+     * element is only disabled after the click has been dispatched, so that the click listeners sending it to
+     * the server still see it enabled, see {@link #DISABLE_ON_CLICK_FILTER}.
+     */
+    private static class ClientDisabler implements ElementAttachListener {
+        private final Component item;
+
+        private ClientDisabler(Component item) {
+            this.item = item;
+        }
+
+        private void install() {
+            item.getElement().addAttachListener(this);
+            if (item.getElement().getNode().isAttached()) {
+                addClientHandler();
+            }
+        }
+
+        @Override
+        public void onAttach(ElementAttachEvent event) {
+            addClientHandler();
+        }
+
+        private void addClientHandler() {
+            item.getElement().executeJs("const item = this;"
+                    + "if (!item.__toolbarDisableOnClick) {"
+                    + "  item.__toolbarDisableOnClick = () => setTimeout(() => { "
+                    + DISABLE_TARGET.formatted("item") + ".disabled = true; });"
+                    + "  item.addEventListener('click', item.__toolbarDisableOnClick);"
+                    + "}");
+        }
+    }
+
+    /**
+     * Enables the clicked item in the browser again after the click has been handled, see
+     * {@link ToolbarClickOptions#withDisableOnClick(boolean)}.
+     */
+    private static class ReEnablingClickListener<T extends Component> implements ComponentEventListener<ClickEvent<T>> {
+        private final ComponentEventListener<ClickEvent<T>> clickListener;
+
+        private ReEnablingClickListener(ComponentEventListener<ClickEvent<T>> clickListener) {
+            this.clickListener = clickListener;
+        }
+
+        @Override
+        public void onComponentEvent(ClickEvent<T> event) {
+            clickListener.onComponentEvent(event);
+            if (event.isFromClient()) {
+                reEnableInClient(event.getSource());
+            }
+        }
+    }
+
 }
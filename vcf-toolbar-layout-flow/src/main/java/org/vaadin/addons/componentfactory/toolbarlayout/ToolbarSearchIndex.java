@@ -0,0 +1,151 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import com.vaadin.flow.component.Component;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Search index over the searchable texts (labels and tooltips) of the items of a {@link ToolbarLayout}, see
+ * {@link ToolbarLayout#searchItems(String, int, int)}. Items are added and removed one by one, so
+ * the index never needs to be rebuilt as a whole.
+ * <p>
+ * Query words of at least {@value #GRAM_LENGTH} characters match anywhere in the text, using an index of
+ * all character trigrams. Shorter query words match the start of a word, using a sorted index of words.
+ * An item matches if it matches all words of the query.
+ * </p>
+ */
+@SuppressWarnings("serial")
+class ToolbarSearchIndex implements Serializable {
+
+    static final int GRAM_LENGTH = 3;
+
+    private final Map<Component, String> texts = new HashMap<>();
+    private final Map<String, Set<Component>> grams = new HashMap<>();
+    private final TreeMap<String, Set<Component>> words = new TreeMap<>();
+
+    /**
+     * Adds the given item with the given text, replacing the previous text of the item.
+     */
+    void put(Component item, String text) {
+        remove(item);
+        String normalized = normalize(text);
+        texts.put(item, normalized);
+        for (String word : split(normalized)) {
+            words.computeIfAbsent(word, w -> new HashSet<>()).add(item);
+            for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+                grams.computeIfAbsent(word.substring(i, i + GRAM_LENGTH), g -> new HashSet<>()).add(item);
+            }
+        }
+    }
+
+    void remove(Component item) {
+        String previous = texts.remove(item);
+        if (previous == null) {
+            return;
+        }
+        for (String word : split(previous)) {
+            removeFrom(words, word, item);
+            for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+                removeFrom(grams, word.substring(i, i + GRAM_LENGTH), item);
+            }
+        }
+    }
+
+    boolean contains(Component item) {
+        return texts.containsKey(item);
+    }
+
+    /**
+     * Gets all items matching the given query. An empty query matches all items.
+     */
+    Set<Component> search(String query) {
+        List<String> queryWords = split(normalize(query));
+        if (queryWords.isEmpty()) {
+            return new HashSet<>(texts.keySet());
+        }
+
+        Set<Component> result = null;
+        for (String queryWord : queryWords) {
+            Set<Component> matches = queryWord.length() < GRAM_LENGTH
+                    ? findByWordPrefix(queryWord)
+                    : findBySubstring(queryWord);
+            if (result == null) {
+                result = matches;
+            } else {
+                result.retainAll(matches);
+            }
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private Set<Component> findByWordPrefix(String prefix) {
+        Set<Component> matches = new HashSet<>();
+        SortedMap<String, Set<Component>> range = words.subMap(prefix, prefix + Character.MAX_VALUE);
+        range.values().forEach(matches::addAll);
+        return matches;
+    }
+
+    private Set<Component> findBySubstring(String substring) {
+        // candidates contain all trigrams of the substring, verify that they are in the right order
+        Set<Component> candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= substring.length(); i++) {
+            Set<Component> items = grams.get(substring.substring(i, i + GRAM_LENGTH));
+            if (items == null) {
+                return new HashSet<>();
+            }
+            if (candidates == null) {
+                candidates = new HashSet<>(items);
+            } else {
+                candidates.retainAll(items);
+            }
+        }
+        candidates.removeIf(item -> !texts.get(item).contains(substring));
+        return candidates;
+    }
+
+    private static void removeFrom(Map<String, Set<Component>> index, String key, Component item) {
+        Set<Component> items = index.get(key);
+        if (items != null && items.remove(item) && items.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> split(String text) {
+        List<String> result = new ArrayList<>();
+        for (String word : text.split("\\s+")) {
+            if (!word.isEmpty()) {
+                result.add(word);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.VaadinServletService;
+import com.vaadin.flow.server.VaadinSession;
+
+/**
+ * A UI with a session, so that components looking up the session on attach, like {@link
+ * com.vaadin.flow.component.menubar.MenuBar}, can be added to it. The session is always locked by the current
+ * thread and runs in production mode, and its service has a context of its own.
+ */
+@SuppressWarnings("serial")
+class MockUI extends UI {
+
+    // answers every setting with its default value, except for the production mode
+    private static final InvocationHandler DEFAULT_CONFIGURATION = (proxy, method, args) -> {
+        if (method.getName().equals("isProductionMode")) {
+            return true;
+        }
+        if (method.isDefault()) {
+            return InvocationHandler.invokeDefault(proxy, method, args);
+        }
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    };
+
+    private static final DeploymentConfiguration CONFIGURATION = (DeploymentConfiguration) Proxy.newProxyInstance(
+            MockUI.class.getClassLoader(), new Class<?>[] { DeploymentConfiguration.class }, DEFAULT_CONFIGURATION);
+
+    MockUI() {
+        getInternals().setSession(new MockSession());
+    }
+
+    private static class MockSession extends VaadinSession {
+
+        private MockSession() {
+            super(new MockService());
+        }
+
+        @Override
+        public boolean hasLock() {
+            return true;
+        }
+
+        @Override
+        public DeploymentConfiguration getConfiguration() {
+            return CONFIGURATION;
+        }
+    }
+
+    private static class MockService extends VaadinServletService {
+
+        private final VaadinContext context = new MockContext();
+
+        @Override
+        public DeploymentConfiguration getDeploymentConfiguration() {
+            return CONFIGURATION;
+        }
+
+        @Override
+        public VaadinContext getContext() {
+            return context;
+        }
+    }
+
+    private static class MockContext implements VaadinContext {
+
+        private final Map<Class<?>, Object> attributes = new HashMap<>();
+
+        @Override
+        public synchronized <T> T getAttribute(Class<T> type, Supplier<T> defaultValueSupplier) {
+            Object value = attributes.get(type);
+            if (value == null && defaultValueSupplier != null) {
+                value = defaultValueSupplier.get();
+                attributes.put(type, value);
+            }
+            return type.cast(value);
+        }
+
+        @Override
+        public synchronized <T> void setAttribute(Class<T> type, T value) {
+            attributes.put(type, value);
+        }
+
+        @Override
+        public synchronized void removeAttribute(Class<?> type) {
+            attributes.remove(type);
+        }
+
+        @Override
+        public Enumeration<String> getContextParameterNames() {
+            return Collections.emptyEnumeration();
+        }
+
+        @Override
+        public String getContextParameter(String name) {
+            return null;
+        }
+    }
+}
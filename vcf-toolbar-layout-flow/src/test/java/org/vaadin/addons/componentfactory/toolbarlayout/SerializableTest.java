@@ -1,14 +1,36 @@
 package org.vaadin.addons.componentfactory.toolbarlayout;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentEventListener;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.contextmenu.MenuItem;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.menubar.MenuBar;
 import com.vaadin.flow.testutil.ClassesSerializableTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
+import org.junit.Test;
+
 public class SerializableTest extends ClassesSerializableTest {
 
     private static final UI FAKE_UI = new UI();
 
+    // upper bound for the serialized state the toolbar adds to each item, on top of the MenuBar, MenuItem and
+    // listeners Flow serializes anyway: the reference of the MenuBar back to the toolbar, 5 bytes. With Flow 25.0,
+    // the child indexes added 10 more bytes per item before they were made transient, and a tooltip 48 more
+    // before it was read from the MenuBar instead of being kept as component data of the item
+    private static final int MAX_TOOLBAR_BYTES_PER_ITEM = 8;
+
     @Override
     protected void resetThreadLocals() {
         super.resetThreadLocals();
@@ -27,4 +49,85 @@ public class SerializableTest extends ClassesSerializableTest {
                 "com\\.vaadin\\..*"
         ));
     }
+
+    @Test
+    public void toolbarLayout_serializedOverheadPerItemIsBounded() throws Exception {
+        int perItem = serializedBytesPerItem(toolbarFactory(false));
+        int perPlainMenuBar = serializedBytesPerItem(SerializableTest::createPlainMenuBars);
+
+        assertTrue("Serialized bytes per item: " + perItem + ", per plain MenuBar: " + perPlainMenuBar,
+                perItem - perPlainMenuBar <= MAX_TOOLBAR_BYTES_PER_ITEM);
+    }
+
+    @Test
+    public void toolbarLayout_sharedMenuBarModeReducesSerializedSize() throws Exception {
+        int perItem = serializedBytesPerItem(toolbarFactory(false));
+        int perSharedItem = serializedBytesPerItem(toolbarFactory(true));
+
+        // measured 1500 bytes per item in shared MenuBar mode and 3151 otherwise with Flow 25.0
+        assertTrue("Serialized bytes per item in shared MenuBar mode: " + perSharedItem + ", per item otherwise: "
+                + perItem, perSharedItem * 3 < perItem * 2);
+    }
+
+    @Test
+    public void toolbarLayout_indexesRebuiltAfterDeserialization() throws Exception {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuItem item = toolbar.addItem("Item", "Tooltip");
+        toolbar.addItem(new Div(), e -> {});
+
+        ToolbarLayout copy = (ToolbarLayout) deserialize(serialize(toolbar));
+
+        assertEquals(2, copy.getComponentCount());
+        MenuBar menuBar = copy.getOwnedMenuBars().get(0);
+        MenuItem copiedItem = menuBar.getItems().get(0);
+        assertEquals(item.getText(), copiedItem.getText());
+        assertEquals(menuBar, copy.findOwningMenuBar(copiedItem).orElseThrow());
+    }
+
+    private int serializedBytesPerItem(IntFunction<Component> factory) throws IOException {
+        int base = serialize(factory.apply(10)).length;
+        int large = serialize(factory.apply(110)).length;
+        return (large - base) / 100;
+    }
+
+    private static IntFunction<Component> toolbarFactory(boolean sharedMenuBarMode) {
+        return itemCount -> {
+            ToolbarLayout toolbar = new ToolbarLayout();
+            toolbar.setSharedMenuBarMode(sharedMenuBarMode);
+            for (int i = 0; i < itemCount; i++) {
+                toolbar.addItem("Item " + i, "Tooltip " + i, e -> {});
+            }
+            return toolbar;
+        };
+    }
+
+    /**
+     * Creates the same MenuBars as {@link ToolbarLayout#addItem(String, String, ComponentEventListener)} does,
+     * by hand in a plain container.
+     */
+    private static Component createPlainMenuBars(int itemCount) {
+        Div container = new Div();
+        for (int i = 0; i < itemCount; i++) {
+            MenuBar menuBar = new MenuBar();
+            menuBar.addThemeNames("dropdown-indicators");
+            MenuItem item = menuBar.addItem("Item " + i, e -> {});
+            menuBar.setTooltipText(item, "Tooltip " + i);
+            container.add(menuBar);
+        }
+        return container;
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
 }
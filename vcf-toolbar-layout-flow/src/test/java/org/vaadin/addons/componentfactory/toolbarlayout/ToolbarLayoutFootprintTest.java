@@ -0,0 +1,259 @@
+/*
+ * Copyright 2025 - 2026 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.vaadin.addons.componentfactory.toolbarlayout;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.contextmenu.MenuItem;
+import com.vaadin.flow.component.contextmenu.SubMenu;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.menubar.MenuBar;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateTree;
+
+import net.jcip.annotations.NotThreadSafe;
+
+/**
+ * Measures what a toolbar costs per UI for representative configurations (mostly taken from the demo)
+ * and compares the measurements to stored baselines:
+ * <ul>
+ * <li>{@code stateNodes}: the number of state nodes sent to the client when the toolbar is attached</li>
+ * <li>{@code payloadBytes}: the size of the JSON changes (including the constant pool) sent to the client
+ * when the toolbar is attached</li>
+ * <li>{@code serializedBytes}: the serialized size of a detached toolbar, as a proxy for its retained heap and
+ * its share of the session size</li>
+ * </ul>
+ * A measurement without a stored baseline fails. Run with {@code -Dfootprint.updateBaselines=true} to record
+ * the current measurements as new baselines.
+ */
+@NotThreadSafe
+public class ToolbarLayoutFootprintTest {
+
+    private static final String BASELINES_RESOURCE = "footprint-baselines.properties";
+    private static final Path BASELINES_SOURCE = Paths.get("src/test/resources/org/vaadin/addons/componentfactory/toolbarlayout",
+            BASELINES_RESOURCE);
+    private static final List<String> BASELINES_HEADER = List.of(
+            "# Baselines for ToolbarLayoutFootprintTest, one entry per <configuration>.<metric>.",
+            "# Measurements exceeding a baseline by more than the tolerance of the test fail the build.",
+            "# Record or update them by running:",
+            "#   mvn test -Dtest=ToolbarLayoutFootprintTest -Dfootprint.updateBaselines=true");
+    private static final boolean UPDATE_BASELINES = Boolean.getBoolean("footprint.updateBaselines");
+
+    // allowed growth over the baseline before the test fails
+    private static final double TOLERANCE = 0.10;
+
+    private static Properties baselines;
+    private static final Map<String, Long> measured = new TreeMap<>();
+
+    private UI ui;
+
+    @BeforeClass
+    public static void loadBaselines() throws IOException {
+        baselines = new Properties();
+        try (InputStream in = ToolbarLayoutFootprintTest.class.getResourceAsStream(BASELINES_RESOURCE)) {
+            if (in != null) {
+                baselines.load(in);
+            }
+        }
+    }
+
+    @AfterClass
+    public static void storeBaselines() throws IOException {
+        if (!UPDATE_BASELINES) {
+            return;
+        }
+        Map<String, String> updated = new TreeMap<>();
+        baselines.stringPropertyNames().forEach(key -> updated.put(key, baselines.getProperty(key)));
+        measured.forEach((key, value) -> updated.put(key, String.valueOf(value)));
+
+        // written by hand instead of Properties.store, to keep the header and a stable order without timestamp
+        List<String> lines = new ArrayList<>(BASELINES_HEADER);
+        updated.forEach((key, value) -> lines.add(key + "=" + value));
+        Files.write(BASELINES_SOURCE, lines);
+    }
+
+    @Before
+    public void setUp() {
+        ui = new MockUI();
+        UI.setCurrent(ui);
+    }
+
+    @After
+    public void tearDown() {
+        UI.setCurrent(null);
+    }
+
+    @Test
+    public void basicDemo() throws IOException {
+        measure("basic", () -> {
+            ToolbarLayout toolbar = new ToolbarLayout();
+            toolbar.add(new Button("Button 1"), new Button("Button 2"), new Button("Button 3"), new Button("Button 4"));
+            return toolbar;
+        });
+    }
+
+    @Test
+    public void multiComponentDemo() throws IOException {
+        measure("multiComponent", () -> {
+            ToolbarLayout toolbar = new ToolbarLayout();
+
+            TextField search = new TextField();
+            search.setPlaceholder("Search");
+            search.setSuffixComponent(VaadinIcon.SEARCH.create());
+
+            Button download = new Button("Download", VaadinIcon.DOWNLOAD.create());
+
+            MenuBar dropdown = new MenuBar();
+            SubMenu subMenu = dropdown.addItem("Dropdown Menu").getSubMenu();
+            subMenu.addItem("Item 1");
+            subMenu.addItem("Item 2");
+
+            ComboBox<String> comboBox = new ComboBox<>();
+            comboBox.setItems("Item 1", "Item 2", "Item 3");
+
+            toolbar.add(search, download, dropdown, new Anchor("https://vaadin.com", "Vaadin"), comboBox);
+            return toolbar;
+        });
+    }
+
+    @Test
+    public void menuBarApiDemo() throws IOException {
+        measure("menuBarApi", () -> createMenuBarApiToolbar(false));
+    }
+
+    @Test
+    public void menuBarApiDemo_sharedMenuBar() throws IOException {
+        measure("menuBarApiShared", () -> createMenuBarApiToolbar(true));
+    }
+
+    @Test
+    public void hundredItems() throws IOException {
+        measure("hundredItems", () -> createItemsToolbar(100, false));
+    }
+
+    @Test
+    public void hundredItems_sharedMenuBar() throws IOException {
+        measure("hundredItemsShared", () -> createItemsToolbar(100, true));
+    }
+
+    private ToolbarLayout createMenuBarApiToolbar(boolean sharedMenuBarMode) {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setSharedMenuBarMode(sharedMenuBarMode);
+
+        toolbar.addItem("Dashboard", VaadinIcon.DASHBOARD.create());
+
+        SubMenu management = toolbar.addItem("Management", VaadinIcon.USER.create()).getSubMenu();
+        SubMenu users = management.addItem("Users").getSubMenu();
+        users.addItem("Create User");
+        users.addItem("List Users");
+        SubMenu roles = management.addItem("Roles").getSubMenu();
+        roles.addItem("Create Role");
+        roles.addItem("List Roles");
+
+        MenuItem settings = toolbar.addItem("Settings", VaadinIcon.COG.create());
+        SubMenu appearance = settings.getSubMenu().addItem("Preferences").getSubMenu().addItem("Appearance")
+                .getSubMenu();
+        appearance.addItem("Light Theme");
+        appearance.addItem("Dark Theme");
+
+        SubMenu about = toolbar.addItem("Help", VaadinIcon.QUESTION_CIRCLE.create()).getSubMenu().addItem("About")
+                .getSubMenu();
+        about.addItem("Version");
+        about.addItem("License");
+        return toolbar;
+    }
+
+    private ToolbarLayout createItemsToolbar(int itemCount, boolean sharedMenuBarMode) {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setSharedMenuBarMode(sharedMenuBarMode);
+        for (int i = 0; i < itemCount; i++) {
+            toolbar.addItem("Item " + i, "Tooltip " + i, e -> { });
+        }
+        return toolbar;
+    }
+
+    private void measure(String configuration, Supplier<ToolbarLayout> toolbarFactory) throws IOException {
+        StateTree stateTree = ui.getInternals().getStateTree();
+        // drop the changes of the UI itself
+        stateTree.collectChanges(change -> { });
+
+        ToolbarLayout toolbar = toolbarFactory.get();
+        ui.add(toolbar);
+        stateTree.runExecutionsBeforeClientResponse();
+
+        Set<StateNode> nodes = new HashSet<>();
+        ConstantPool constantPool = new ConstantPool();
+        long[] payloadBytes = { 0 };
+        stateTree.collectChanges(change -> {
+            nodes.add(change.getNode());
+            payloadBytes[0] += String.valueOf(change.toJson(constantPool)).length();
+        });
+        payloadBytes[0] += String.valueOf(constantPool.dumpConstants()).length();
+
+        check(configuration + ".stateNodes", nodes.size());
+        check(configuration + ".payloadBytes", payloadBytes[0]);
+        // serialize a detached toolbar, as an attached one pulls in the UI and everything attached to it
+        check(configuration + ".serializedBytes", serializedSize(toolbarFactory.get()));
+    }
+
+    private void check(String key, long value) {
+        measured.put(key, value);
+        if (UPDATE_BASELINES) {
+            return;
+        }
+
+        String baseline = baselines.getProperty(key);
+        assertNotNull("No baseline recorded for " + key + ", measured " + value, baseline);
+
+        long limit = Math.round(Long.parseLong(baseline.trim()) * (1 + TOLERANCE));
+        assertTrue(key + " is " + value + ", exceeding the baseline of " + baseline, value <= limit);
+    }
+
+    private static long serializedSize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.size();
+    }
+}
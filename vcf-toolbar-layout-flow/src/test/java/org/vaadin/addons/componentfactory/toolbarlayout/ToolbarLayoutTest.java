@@ -16,15 +16,49 @@
 package org.vaadin.addons.componentfactory.toolbarlayout;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.vaadin.flow.component.ClickEvent;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.Key;
+import com.vaadin.flow.component.KeyModifier;
 import com.vaadin.flow.component.UI;
-
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.contextmenu.MenuItem;
+import com.vaadin.flow.component.contextmenu.SubMenu;
+import com.vaadin.flow.component.icon.VaadinIcon;
+import com.vaadin.flow.component.menubar.MenuBar;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.dom.DomEvent;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.JacksonUtils;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinService;
 import net.jcip.annotations.NotThreadSafe;
+import tools.jackson.databind.node.ObjectNode;
 
 @NotThreadSafe
 public class ToolbarLayoutTest {
@@ -33,7 +67,7 @@ public class ToolbarLayoutTest {
 
     @Before
     public void setUp() {
-        ui = new UI();
+        ui = new MockUI();
         UI.setCurrent(ui);
     }
 
@@ -53,4 +87,1030 @@ public class ToolbarLayoutTest {
 //        assertEquals("test", pinput.getElement().getProperty("value"));
     }
 
+    @Test
+    public void sharedMenuBarMode_itemsShareOneMenuBar() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setSharedMenuBarMode(true);
+
+        MenuItem first = toolbar.addItem("First");
+        MenuItem second = toolbar.addItem("Second", VaadinIcon.COG.create());
+        MenuItem third = toolbar.addItem("Third", "Tooltip");
+
+        assertEquals(1, toolbar.getComponentCount());
+        MenuBar menuBar = (MenuBar) toolbar.getComponentAt(0);
+        assertEquals(3, menuBar.getItems().size());
+        assertTrue(menuBar.getItems().containsAll(List.of(first, second, third)));
+    }
+
+    @Test
+    public void sharedMenuBarMode_collapsesAsOneItem() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setSharedMenuBarMode(true);
+        List<String> clicks = new ArrayList<>();
+        toolbar.addItem("First");
+        toolbar.addItem("Second", e -> clicks.add("second"));
+        Button button = new Button("Button");
+        toolbar.add(button);
+        MenuBar menuBar = (MenuBar) toolbar.getComponentAt(0);
+
+        // the root items are not toolbar items of their own, the shared MenuBar is
+        assertEquals(List.of(menuBar, button), toolbar.getItems());
+        assertEquals(List.of(menuBar), toolbar.searchItems("Second", 0, 10));
+
+        // one breakpoint hides all root items at once, each of them stays reachable from the collapsed items menu
+        toolbar.setBreakpointMode(true);
+        toolbar.setItemCollapseBreakpoint(menuBar, 600);
+        ui.add(toolbar);
+        runBeforeClientResponse();
+        SubMenu collapsed = toolbar.getCollapsedItemsMenu().orElseThrow().getItems().get(0).getSubMenu();
+        assertEquals(2, collapsed.getItems().size());
+        assertEquals("600", collapsed.getItems().get(1).getElement().getAttribute("data-expand-below"));
+
+        MenuItem entry = collapsed.getItems().get(1);
+        ComponentUtil.fireEvent(entry, new ClickEvent<>(entry));
+        assertEquals(List.of("second"), clicks);
+
+        toolbar.addItem("Third");
+        runBeforeClientResponse();
+        assertEquals(3, collapsed.getItems().size());
+        assertEquals("Third", collapsed.getItems().get(2).getElement().getTextRecursively());
+    }
+
+    @Test
+    public void sharedMenuBarMode_disabledByDefault() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+
+        toolbar.addItem("First");
+        toolbar.addItem("Second");
+
+        assertEquals(2, toolbar.getComponentCount());
+    }
+
+    @Test
+    public void sharedMenuBarMode_recreatedAfterRemoval() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setSharedMenuBarMode(true);
+        toolbar.addItem("First");
+        toolbar.removeAll();
+
+        toolbar.addItem("Second");
+
+        assertEquals(1, toolbar.getComponentCount());
+        assertEquals(1, ((MenuBar) toolbar.getComponentAt(0)).getItems().size());
+    }
+
+    @Test
+    public void childIndex_tracksMenuBarsAddedAndRemoved() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuItem item = toolbar.addItem("Item");
+        MenuBar ownMenuBar = new MenuBar();
+        toolbar.add(ownMenuBar, new Button("Button"));
+
+        List<MenuBar> menuBars = toolbar.getOwnedMenuBars();
+        assertEquals(2, menuBars.size());
+        assertEquals(ownMenuBar, menuBars.get(1));
+        assertEquals(menuBars.get(0), toolbar.findOwningMenuBar(item).orElseThrow());
+
+        toolbar.remove(ownMenuBar);
+        assertEquals(List.of(menuBars.get(0)), toolbar.getOwnedMenuBars());
+
+        toolbar.removeAll();
+        assertTrue(toolbar.getOwnedMenuBars().isEmpty());
+        assertFalse(toolbar.findOwningMenuBar(item).isPresent());
+    }
+
+    @Test
+    public void childIndex_prunesMenuBarsRemovedExternally() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuItem removedItem = toolbar.addItem("Removed");
+        MenuItem movedItem = toolbar.addItem("Moved");
+        MenuItem keptItem = toolbar.addItem("Kept");
+        MenuBar removed = toolbar.findOwningMenuBar(removedItem).orElseThrow();
+        MenuBar moved = toolbar.findOwningMenuBar(movedItem).orElseThrow();
+
+        removed.removeFromParent();
+        new Div().add(moved);
+
+        assertFalse(toolbar.findOwningMenuBar(removedItem).isPresent());
+        assertFalse(toolbar.findOwningMenuBar(movedItem).isPresent());
+        assertTrue(toolbar.findOwningMenuBar(keptItem).isPresent());
+
+        ui.add(toolbar);
+        toolbar.setOpenOnHover(true);
+        runBeforeClientResponse();
+        assertEquals(1, toolbar.getOwnedMenuBars().size());
+        assertFalse(removed.isOpenOnHover());
+        assertFalse(moved.isOpenOnHover());
+        assertTrue(toolbar.findOwningMenuBar(keptItem).orElseThrow().isOpenOnHover());
+    }
+
+    @Test
+    public void childIndex_prunesMenuItemsRemovedFromTheirMenuBar() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setSharedMenuBarMode(true);
+        MenuItem removedItem = toolbar.addItem("Removed");
+        MenuItem clearedItem = toolbar.addItem("Cleared");
+        MenuBar menuBar = toolbar.findOwningMenuBar(removedItem).orElseThrow();
+
+        menuBar.remove(removedItem);
+        assertFalse(toolbar.findOwningMenuBar(removedItem).isPresent());
+        assertFalse(toolbar.containsItem(removedItem));
+        assertEquals(menuBar, toolbar.findOwningMenuBar(clearedItem).orElseThrow());
+
+        menuBar.removeAll();
+        assertFalse(toolbar.findOwningMenuBar(clearedItem).isPresent());
+        assertFalse(toolbar.containsItem(clearedItem));
+        assertEquals(List.of(menuBar), toolbar.getOwnedMenuBars());
+    }
+
+    @Test
+    public void childIndex_tracksReplacedMenuBars() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        Button button = new Button("Button");
+        MenuBar menuBar = new MenuBar();
+        toolbar.add(button);
+
+        toolbar.replace(button, menuBar);
+        assertEquals(List.of(menuBar), toolbar.getOwnedMenuBars());
+
+        toolbar.replace(menuBar, button);
+        assertTrue(toolbar.getOwnedMenuBars().isEmpty());
+    }
+
+    @Test
+    public void overflowButton_replacesPreviousButton() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        Button first = new Button("First");
+        Button second = new Button("Second");
+
+        toolbar.setOverflowButton(first);
+        toolbar.setOverflowButton(second);
+
+        assertEquals(1, toolbar.getComponentCount());
+        assertEquals(second, toolbar.getOverflowButton().orElseThrow());
+        assertFalse(first.getParent().isPresent());
+
+        // removed externally, so the next replacement must not try to remove it again
+        second.removeFromParent();
+        assertFalse(toolbar.getOverflowButton().isPresent());
+        toolbar.setOverflowButton(null);
+        assertEquals(0, toolbar.getComponentCount());
+    }
+
+    @Test
+    public void menuBarSettings_appliedOncePerRoundTrip() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuItem item = toolbar.addItem("Item");
+        MenuBar menuBar = toolbar.findOwningMenuBar(item).orElseThrow();
+        ui.add(toolbar);
+        runBeforeClientResponse();
+
+        toolbar.setOpenOnHover(true);
+        toolbar.setDropdownIndicatorShown(false);
+
+        // not propagated until the response is written
+        assertFalse(menuBar.isOpenOnHover());
+        assertTrue(menuBar.hasThemeName("dropdown-indicators"));
+
+        // menu bars created in the same round trip get the current settings right away
+        MenuBar newMenuBar = toolbar.findOwningMenuBar(toolbar.addItem("New")).orElseThrow();
+        assertTrue(newMenuBar.isOpenOnHover());
+        assertFalse(newMenuBar.hasThemeName("dropdown-indicators"));
+
+        runBeforeClientResponse();
+        assertTrue(menuBar.isOpenOnHover());
+        assertFalse(menuBar.hasThemeName("dropdown-indicators"));
+    }
+
+    @Test
+    public void menuBarSettings_appliedOnAttach() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuBar menuBar = toolbar.findOwningMenuBar(toolbar.addItem("Item")).orElseThrow();
+
+        toolbar.setOpenOnHover(true);
+        ui.add(toolbar);
+        runBeforeClientResponse();
+
+        assertTrue(menuBar.isOpenOnHover());
+    }
+
+    @Test
+    public void addItems_createsItemsFromSpecs() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.add(new Button("Existing"));
+        List<String> clicked = new ArrayList<>();
+
+        List<MenuItem> items = toolbar.addItems(List.of(
+                new ToolbarItemSpec("Plain"),
+                new ToolbarItemSpec("Icon").withIcon(VaadinIcon.COG::create).withTooltipText("Tooltip"),
+                new ToolbarItemSpec("Disabled").withEnabled(false),
+                new ToolbarItemSpec("Hidden").withVisible(false),
+                new ToolbarItemSpec("Clickable").withClickListener(e -> clicked.add("Clickable"))));
+
+        assertEquals(5, items.size());
+        assertEquals(6, toolbar.getComponentCount());
+        assertEquals(5, toolbar.getOwnedMenuBars().size());
+        assertEquals(toolbar.getComponentAt(2), toolbar.findOwningMenuBar(items.get(1)).orElseThrow());
+        assertTrue(items.get(1).getChildren().anyMatch(Button.class::isInstance));
+        assertFalse(items.get(2).isEnabled());
+        assertFalse(items.get(3).isVisible());
+
+        ComponentUtil.fireEvent(items.get(4),
+                new ClickEvent<>(items.get(4)));
+        assertEquals(List.of("Clickable"), clicked);
+    }
+
+    @Test
+    public void addItems_sharedMenuBarMode() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setSharedMenuBarMode(true);
+        MenuItem first = toolbar.addItem("First");
+
+        List<MenuItem> items = toolbar.addItems(List.of(new ToolbarItemSpec("Second"), new ToolbarItemSpec("Third")));
+
+        assertEquals(1, toolbar.getComponentCount());
+        MenuBar menuBar = toolbar.findOwningMenuBar(first).orElseThrow();
+        assertEquals(List.of(first, items.get(0), items.get(1)), menuBar.getItems());
+    }
+
+    @Test
+    public void setItems_refreshAllOnlyTouchesChangedItems() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        Button fixed = new Button("Fixed");
+        toolbar.add(fixed);
+        List<String> items = new ArrayList<>(List.of("A", "B", "C"));
+
+        ToolbarDataBinding<String> binding = toolbar.setItems(items, Button::new);
+        Component a = binding.getComponent("A").orElseThrow();
+        Component b = binding.getComponent("B").orElseThrow();
+        assertEquals(4, toolbar.getComponentCount());
+        assertEquals(a, toolbar.getComponentAt(1));
+
+        items.remove("B");
+        items.add(0, "C");
+        items.remove(2);
+        items.add("D");
+        binding.refreshAll();
+
+        // C moved to the front, A is kept, B removed, D added
+        assertEquals(List.of("C", "A", "D"), toolbar.getChildren().skip(1)
+                .map(c -> ((Button) c).getText()).toList());
+        assertEquals(a, binding.getComponent("A").orElseThrow());
+        assertFalse(b.getParent().isPresent());
+        assertEquals(fixed, toolbar.getComponentAt(0));
+    }
+
+    @Test
+    public void setItems_refreshItemUsesUpdater() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        StringBuilder label = new StringBuilder("Initial");
+        ToolbarDataBinding<StringBuilder> binding = toolbar.setItems(List.of(label), sb -> new Button(sb.toString()))
+                .setItemUpdater((component, sb) -> ((Button) component).setText(sb.toString()));
+        Component component = binding.getComponent(label).orElseThrow();
+
+        label.replace(0, label.length(), "Changed");
+        binding.refreshItem(label);
+
+        assertEquals(component, toolbar.getComponentAt(0));
+        assertEquals("Changed", ((Button) component).getText());
+    }
+
+    @Test
+    public void setItems_duplicateIdsRejectedWithoutChangingTheToolbar() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        List<String> items = new ArrayList<>(List.of("A", "B"));
+        ToolbarDataBinding<String> binding = toolbar.setItems(items, Button::new);
+        List<Component> children = toolbar.getChildren().toList();
+
+        items.add(0, "C");
+        items.add("A");
+        try {
+            binding.refreshAll();
+            fail("Duplicate ids should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        assertEquals(children, toolbar.getChildren().toList());
+        assertFalse(binding.getComponent("C").isPresent());
+    }
+
+    @Test
+    public void setItems_replacesPreviousBinding() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setItems(List.of("A", "B"), Button::new);
+
+        toolbar.setItems(List.of("C"), Button::new);
+
+        assertEquals(1, toolbar.getComponentCount());
+        assertEquals("C", ((Button) toolbar.getComponentAt(0)).getText());
+    }
+
+    @Test
+    public void lazySubMenu_builtOnFirstOpenAndCached() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        int[] calls = { 0 };
+        MenuItem item = toolbar.addLazyItem("Lazy", subMenu -> {
+            calls[0]++;
+            subMenu.addItem("Child 1");
+            subMenu.addItem("Child 2");
+        });
+
+        assertEquals(0, calls[0]);
+        assertEquals(1, item.getSubMenu().getItems().size());
+        assertEquals(LazySubMenu.PLACEHOLDER_TEXT, item.getSubMenu().getItems().get(0).getText());
+
+        // the menu bar forwards the opening of its sub menus to the item elements
+        ui.add(toolbar);
+        runBeforeClientResponse();
+        assertTrue(ui.getInternals().dumpPendingJavaScriptInvocations().stream()
+                .anyMatch(invocation -> invocation.getInvocation().getExpression().contains("opened-changed")));
+
+        // closing the sub menu does not build it
+        fireSubMenuOpenedChanged(item, false);
+        assertEquals(0, calls[0]);
+
+        fireSubMenuOpenedChanged(item, true);
+        fireSubMenuOpenedChanged(item, true);
+        assertEquals(1, calls[0]);
+        assertEquals(2, item.getSubMenu().getItems().size());
+
+        toolbar.evictLazySubMenu(item);
+        assertEquals(1, item.getSubMenu().getItems().size());
+        fireSubMenuOpenedChanged(item, true);
+        assertEquals(2, calls[0]);
+        assertEquals(2, item.getSubMenu().getItems().size());
+    }
+
+    @Test
+    public void lazySubMenu_uncachedIsRebuiltOnEveryOpen() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuItem item = toolbar.addItem("Lazy");
+        int[] calls = { 0 };
+        toolbar.setLazySubMenu(item, subMenu -> subMenu.addItem("Child " + ++calls[0]), false);
+
+        fireSubMenuOpenedChanged(item, true);
+        fireSubMenuOpenedChanged(item, true);
+
+        assertEquals(2, calls[0]);
+        assertEquals(1, item.getSubMenu().getItems().size());
+        assertEquals("Child 2", item.getSubMenu().getItems().get(0).getText());
+    }
+
+    @Test
+    public void lazySubMenu_nestedItemsBuiltLevelByLevel() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuItem[] nested = new MenuItem[1];
+        MenuItem item = toolbar.addLazyItem("Lazy", subMenu -> {
+            nested[0] = subMenu.addItem("Nested");
+            toolbar.setLazySubMenu(nested[0], nestedSubMenu -> nestedSubMenu.addItem("Leaf"), true);
+        });
+
+        fireSubMenuOpenedChanged(item, true);
+        assertEquals(LazySubMenu.PLACEHOLDER_TEXT, nested[0].getSubMenu().getItems().get(0).getText());
+        fireSubMenuOpenedChanged(nested[0], true);
+        assertEquals("Leaf", nested[0].getSubMenu().getItems().get(0).getText());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void lazySubMenu_itemOfOtherMenuBarRejected() {
+        new ToolbarLayout().setLazySubMenu(new MenuBar().addItem("Other"), subMenu -> {}, true);
+    }
+
+    @Test
+    public void toolbarDefinition_createsIndependentToolbars() {
+        ToolbarDefinition definition = ToolbarDefinition.builder()
+                .addItem("save", "Save", VaadinIcon.CHECK::create, "Saves the document")
+                .addItem("close", "Close")
+                .withVariants(ToolbarLayoutVariant.HIDE_ICONS)
+                .withReverseCollapseOrder(true)
+                .build();
+
+        List<String> initialized = new ArrayList<>();
+        ToolbarLayout first = definition.createToolbar((id, item) -> {
+            initialized.add(id);
+            item.setEnabled(!"close".equals(id));
+        });
+        ToolbarLayout second = definition.createToolbar();
+
+        assertEquals(List.of("save", "close"), initialized);
+        assertEquals(2, first.getComponentCount());
+        assertEquals(2, second.getComponentCount());
+        assertTrue(first.isReverseCollapseOrder());
+        assertTrue(first.hasThemeName(ToolbarLayoutVariant.HIDE_ICONS.getVariantName()));
+
+        // per-session state is not shared between the created toolbars
+        MenuItem firstClose = ((MenuBar) first.getComponentAt(1)).getItems().get(0);
+        MenuItem secondClose = ((MenuBar) second.getComponentAt(1)).getItems().get(0);
+        assertFalse(firstClose.isEnabled());
+        assertTrue(secondClose.isEnabled());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void toolbarDefinition_rejectsDuplicateIds() {
+        ToolbarDefinition.builder().addItem("save", "Save").addItem("save", "Save again");
+    }
+
+    @Test
+    public void toolbarDefinitionCache_evictsLeastRecentlyUsed() {
+        List<String> built = new ArrayList<>();
+        ToolbarDefinitionCache<String> cache = new ToolbarDefinitionCache<>(2, role -> {
+            built.add(role);
+            return ToolbarDefinition.builder().addItem("role", role).build();
+        });
+
+        ToolbarDefinition admin = cache.get("admin");
+        cache.get("user");
+        assertEquals(admin, cache.get("admin"));
+        cache.get("guest");
+
+        // "user" was the least recently used one
+        assertEquals(2, cache.size());
+        cache.get("user");
+        assertEquals(List.of("admin", "user", "guest", "user"), built);
+    }
+
+    @Test
+    public void updateDebounceDelay_setAsProperty() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        assertEquals(0, toolbar.getUpdateDebounceDelay());
+
+        toolbar.setUpdateDebounceDelay(500);
+        assertEquals(500, toolbar.getElement().getProperty("updateDebounceDelay", 0));
+        assertEquals(500, toolbar.getUpdateDebounceDelay());
+    }
+
+    @Test
+    public void collapseBreakpoints_collapsedItemsStayReachable() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        Button first = new Button("First");
+        Button second = new Button("Second");
+        Button third = new Button("Third");
+        List<String> clicks = new ArrayList<>();
+        second.addClickListener(e -> clicks.add("second"));
+        toolbar.add(first, second, third);
+        toolbar.setItemCollapseBreakpoint(first, 600);
+        toolbar.setItemCollapseBreakpoint(second, 400);
+        ui.add(toolbar);
+        runBeforeClientResponse();
+
+        // without breakpoint mode, nothing is added
+        assertEquals("600", first.getElement().getAttribute("data-collapse-below"));
+        assertFalse(toolbar.getCollapsedItemsMenu().isPresent());
+        assertEquals(3, toolbar.getChildren().count());
+
+        toolbar.setBreakpointMode(true);
+        runBeforeClientResponse();
+        assertTrue(toolbar.isBreakpointMode());
+        assertEquals(Integer.valueOf(400), toolbar.getItemCollapseBreakpoint(second));
+        assertFalse(ui.getInternals().dumpPendingJavaScriptInvocations().stream()
+                .anyMatch(invocation -> invocation.getInvocation().getExpression().contains("document.head")));
+
+        MenuBar menu = toolbar.getCollapsedItemsMenu().orElseThrow();
+        assertEquals(4, toolbar.getComponentCount());
+        assertEquals(menu, toolbar.getComponentAt(3));
+        assertEquals(List.of(first, second, third), toolbar.getItems());
+        assertEquals("600", menu.getElement().getAttribute("data-expand-below"));
+        List<MenuItem> entries = menu.getItems().get(0).getSubMenu().getItems();
+        assertEquals(2, entries.size());
+        assertEquals("Second", entries.get(1).getElement().getTextRecursively());
+        assertEquals("400", entries.get(1).getElement().getAttribute("data-expand-below"));
+
+        ComponentUtil.fireEvent(entries.get(1), new ClickEvent<>(entries.get(1)));
+        assertEquals(List.of("second"), clicks);
+
+        // items added later stay in front of the menu, removed ones are dropped from it
+        Button fourth = new Button("Fourth");
+        toolbar.add(fourth);
+        toolbar.setItemCollapseBreakpoint(fourth, 800);
+        toolbar.remove(first);
+        runBeforeClientResponse();
+        assertEquals(menu, toolbar.getComponentAt(3));
+        assertEquals("800", menu.getElement().getAttribute("data-expand-below"));
+        assertEquals(2, menu.getItems().get(0).getSubMenu().getItems().size());
+
+        toolbar.setBreakpointMode(false);
+        runBeforeClientResponse();
+        assertFalse(toolbar.getCollapsedItemsMenu().isPresent());
+        assertEquals(3, toolbar.getComponentCount());
+
+        toolbar.setItemCollapseBreakpoint(first, null);
+        assertEquals(null, toolbar.getItemCollapseBreakpoint(first));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void collapseBreakpoints_widthNotCoveredByStyleSheetRejected() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        Button button = new Button("Button");
+        toolbar.add(button);
+        toolbar.setItemCollapseBreakpoint(button, 620);
+    }
+
+    @Test
+    public void collapseBreakpoints_styleSheetCoversAllWidths() throws IOException {
+        String styles;
+        try (InputStream stream = ToolbarLayout.class
+                .getResourceAsStream("/META-INF/resources/frontend/styles/toolbar-layout-styles.css")) {
+            styles = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        for (int width = ToolbarLayout.BREAKPOINT_STEP; width <= ToolbarLayout.MAX_BREAKPOINT;
+                width += ToolbarLayout.BREAKPOINT_STEP) {
+            assertTrue(styles.contains("[data-collapse-below=\"" + width + "\"]"));
+            assertTrue(styles.contains("[data-expand-below=\"" + width + "\"]"));
+        }
+    }
+
+    @Test
+    public void itemLabels_fromLabelTextOrAriaLabel() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        TextField field = new TextField("Search");
+        Button iconButton = new Button(VaadinIcon.COG.create());
+        iconButton.setAriaLabel("Settings");
+        toolbar.add(field, iconButton);
+        MenuItem item = toolbar.addItem("Edit", VaadinIcon.EDIT.create());
+
+        assertEquals("Search", ToolbarLayout.getItemLabel(field));
+        assertEquals("Settings", ToolbarLayout.getItemLabel(iconButton));
+        assertEquals("Edit", ToolbarLayout.getItemLabel(toolbar.findOwningMenuBar(item).orElseThrow()));
+    }
+
+    @Test
+    public void getItems_skipsCustomOverflowButton() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        Button first = new Button("First");
+        toolbar.add(first);
+        toolbar.setOverflowButton(new Button("More"));
+        Button second = new Button("Second");
+        toolbar.add(second);
+
+        // the overflow button is a child between the items, but not an item
+        assertEquals(3, toolbar.getComponentCount());
+        assertEquals(List.of(first, second), toolbar.getItems());
+    }
+
+    @Test
+    public void clickItem_reachesPlainElementClickListenersOnce() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        Component plain = new Component(new Element("x-item")) { };
+        List<String> clicked = new ArrayList<>();
+        toolbar.addItem(plain, e -> clicked.add("first " + e.isFromClient()));
+        toolbar.addItem(plain, e -> clicked.add("second " + e.isFromClient()));
+
+        ToolbarLayout.clickItem(plain);
+        assertEquals(List.of("first false", "second false"), clicked);
+
+        clicked.clear();
+        plain.getElement().getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(plain.getElement(), "click", JacksonUtils.createObjectNode()));
+        assertEquals(List.of("first true", "second true"), clicked);
+    }
+
+    @Test
+    public void clickItem_doesNotReEnableInClient() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setClickOptions(ToolbarClickOptions.defaults().withDisableOnClick(true));
+        List<Boolean> fromClient = new ArrayList<>();
+        Button button = new Button("Save");
+        toolbar.addItem(button, e -> fromClient.add(e.isFromClient()));
+        ui.add(toolbar);
+        runBeforeClientResponse();
+        ui.getInternals().dumpPendingJavaScriptInvocations();
+
+        ToolbarLayout.clickItem(button);
+        assertEquals(List.of(false), fromClient);
+        runBeforeClientResponse();
+        assertTrue(ui.getInternals().dumpPendingJavaScriptInvocations().stream()
+                .noneMatch(invocation -> invocation.getInvocation().getExpression().contains(".disabled = false")));
+    }
+
+    @Test
+    public void clickItem_reachesListenersOfAllItemKinds() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        Component plain = new Component(new Element("x-item")) { };
+        Button button = new Button("Button");
+        List<String> clicked = new ArrayList<>();
+        toolbar.addItem(plain, e -> clicked.add("first"));
+        toolbar.addItem(plain, e -> clicked.add("second"));
+        toolbar.addItem(button, e -> clicked.add("button"),
+                ToolbarClickOptions.defaults().withMinimalEventData(true));
+        MenuItem item = toolbar.addItem("Item", e -> clicked.add("item"),
+                ToolbarClickOptions.defaults().withDebounce(300));
+
+        ToolbarLayout.clickItem(plain);
+        ToolbarLayout.clickItem(button);
+        ToolbarLayout.clickItem(toolbar.findOwningMenuBar(item).orElseThrow());
+        assertEquals(List.of("first", "second", "button", "item"), clicked);
+    }
+
+    @Test
+    public void clickOptions_toolbarWideAndPerItem() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        assertEquals(ToolbarClickOptions.defaults(), toolbar.getClickOptions());
+
+        ToolbarClickOptions options = ToolbarClickOptions.defaults().withThrottle(500).withDisableOnClick(true);
+        toolbar.setClickOptions(options);
+        assertEquals(options, toolbar.getClickOptions());
+        assertEquals(500, options.getThrottle());
+        assertTrue(options.isDisableOnClick());
+        assertFalse(options.isMinimalEventData());
+
+        // buttons are disabled in the browser like any other item, and never on the server
+        List<String> clicks = new ArrayList<>();
+        Button button = new Button("Save");
+        toolbar.addItem(button, e -> clicks.add("save"));
+        assertFalse(button.isDisableOnClick());
+        MenuItem print = toolbar.addItem("Print", e -> clicks.add("print"));
+        Button other = new Button("Cancel");
+        toolbar.addItem(other, e -> { }, ToolbarClickOptions.defaults());
+
+        ui.add(toolbar);
+        runBeforeClientResponse();
+        List<String> scripts = ui.getInternals().dumpPendingJavaScriptInvocations().stream()
+                .map(invocation -> invocation.getInvocation().getExpression())
+                .filter(expression -> expression.contains("__toolbarDisableOnClick")).toList();
+        assertEquals(2, scripts.size());
+        // a root menu item disables the button rendered for it
+        assertTrue(scripts.get(0).contains("closest('vaadin-menu-bar-button')"));
+        String filter = "!(element.closest('vaadin-menu-bar-button') || element).disabled";
+        assertTrue(button.getElement().getNode().getFeature(ElementListenerMap.class).getExpressions("click")
+                .contains(filter));
+        assertFalse(other.getElement().getNode().getFeature(ElementListenerMap.class).getExpressions("click")
+                .contains(filter));
+
+        // the browser reports the filter as passed for enabled elements
+        ObjectNode eventData = JacksonUtils.createObjectNode();
+        eventData.put(filter, true);
+        button.getElement().getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(button.getElement(), "click", eventData));
+        print.getElement().getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(print.getElement(), "click", eventData));
+        assertEquals(List.of("save", "print"), clicks);
+        assertTrue(button.isEnabled());
+        assertTrue(print.isEnabled());
+        runBeforeClientResponse();
+        assertEquals(2, ui.getInternals().dumpPendingJavaScriptInvocations().stream()
+                .filter(invocation -> invocation.getInvocation().getExpression()
+                        .contains("(this.closest('vaadin-menu-bar-button') || this).disabled = false"))
+                .count());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void clickOptions_debounceAndThrottleRejected() {
+        ToolbarClickOptions.defaults().withDebounce(300).withThrottle(500);
+    }
+
+    @Test
+    public void searchItems_matchesLabelsAndTooltips() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuItem copy = toolbar.addItem("Copy", "Copy selection to clipboard");
+        MenuItem paste = toolbar.addItem("Paste");
+        Button print = new Button("Print document");
+        toolbar.add(print);
+        MenuBar copyBar = toolbar.findOwningMenuBar(copy).orElseThrow();
+        MenuBar pasteBar = toolbar.findOwningMenuBar(paste).orElseThrow();
+
+        assertEquals(List.of(copyBar), toolbar.searchItems("clipboard", 0, 10));
+        assertEquals(List.of(pasteBar, print), toolbar.searchItems("p", 0, 10));
+        assertEquals(List.of(print), toolbar.searchItems("cument", 0, 10));
+        assertEquals(List.of(print), toolbar.searchItems("PRINT doc", 0, 10));
+        assertEquals(List.of(pasteBar), toolbar.searchItems("", 1, 1));
+
+        // tooltips are read from the MenuBar, so ones set on it directly are found as well
+        pasteBar.setTooltipText(paste, "Insert from clipboard");
+        toolbar.refreshSearchIndex(pasteBar);
+        assertEquals(List.of(copyBar, pasteBar), toolbar.searchItems("clipboard", 0, 10));
+        pasteBar.setTooltipText(paste, null);
+        toolbar.refreshSearchIndex(pasteBar);
+
+        // the index is updated incrementally once built
+        MenuItem cut = toolbar.addItem("Cut", "Cut selection to clipboard");
+        MenuBar cutBar = toolbar.findOwningMenuBar(cut).orElseThrow();
+        assertEquals(List.of(copyBar, cutBar), toolbar.searchItems("clipboard", 0, 10));
+        toolbar.remove(copyBar);
+        assertEquals(List.of(cutBar), toolbar.searchItems("clipboard", 0, 10));
+
+        print.setText("Export");
+        toolbar.refreshSearchIndex(print);
+        assertEquals(List.of(print), toolbar.searchItems("exp", 0, 10));
+        assertTrue(toolbar.searchItems("print", 0, 10).isEmpty());
+
+        // a custom overflow button is not an item
+        toolbar.setOverflowButton(new Button("More exports"));
+        assertEquals(List.of(print), toolbar.searchItems("exp", 0, 10));
+    }
+
+    @Test
+    public void clientAction_installedOnAttach() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuItem print = toolbar.addItem("Print", ToolbarClientAction.print());
+        Div panel = new Div();
+        Button toggle = new Button("Panel");
+        toolbar.add(toggle);
+        toolbar.setClientAction(toggle, ToolbarClientAction.toggleVisibility(panel));
+        assertTrue(dumpClientActionInstallations().isEmpty());
+
+        ui.add(toolbar, panel);
+        runBeforeClientResponse();
+        List<String> installations = dumpClientActionInstallations();
+        assertEquals(2, installations.size());
+        assertTrue(installations.stream().anyMatch(script -> script.contains("window.print()")));
+        // the target is null in the browser while it is not attached
+        assertTrue(installations.stream().anyMatch(script -> script.contains("if (arg) { arg.hidden = !arg.hidden; }")));
+
+        assertTrue(toolbar.getClientAction(print) != null);
+        toolbar.setClientAction(print, null);
+        assertEquals(null, toolbar.getClientAction(print));
+
+        // the removed action is not installed again on the next attach
+        ui.remove(toolbar);
+        ui.add(toolbar);
+        runBeforeClientResponse();
+        installations = dumpClientActionInstallations();
+        assertEquals(1, installations.size());
+        assertTrue(installations.get(0).contains("arg.hidden"));
+    }
+
+    private List<String> dumpClientActionInstallations() {
+        return ui.getInternals().dumpPendingJavaScriptInvocations().stream()
+                .map(invocation -> invocation.getInvocation().getExpression())
+                .filter(expression -> expression.contains("item.addEventListener('click'"))
+                .toList();
+    }
+
+    @Test
+    public void itemShortcuts_dispatchedViaLookupTable() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        List<String> clicked = new ArrayList<>();
+        MenuItem save = toolbar.addItem("Save", e -> clicked.add("save"));
+        Button print = new Button("Print", e -> clicked.add("print"));
+        toolbar.add(print);
+
+        toolbar.setItemShortcut(save, Key.of("s"), KeyModifier.CONTROL);
+        toolbar.setItemShortcut(print, Key.of("p"), KeyModifier.SHIFT, KeyModifier.CONTROL);
+        assertEquals(List.of("control+shift+p"), ToolbarLayout.toKeyCombinations(Key.of("p"), KeyModifier.SHIFT,
+                KeyModifier.CONTROL));
+        assertTrue(toolbar.getElement().getProperty("shortcutCombinations").contains("control+s"));
+
+        toolbar.dispatchShortcut("control+s");
+        toolbar.dispatchShortcut("control+shift+p");
+        toolbar.dispatchShortcut("control+x");
+        assertEquals(List.of("save", "print"), clicked);
+
+        // disabled items do not react to their shortcut
+        print.setEnabled(false);
+        toolbar.dispatchShortcut("control+shift+p");
+        assertEquals(List.of("save", "print"), clicked);
+
+        toolbar.removeItemShortcut(save);
+        toolbar.dispatchShortcut("control+s");
+        assertEquals(List.of("save", "print"), clicked);
+        assertEquals("control+shift+p", toolbar.getElement().getProperty("shortcutCombinations"));
+    }
+
+    @Test
+    public void itemShortcuts_removedWithTheirItems() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        List<String> clicked = new ArrayList<>();
+        MenuItem save = toolbar.addItem("Save", e -> clicked.add("save"));
+        MenuItem share = toolbar.addItem("Share", e -> clicked.add("share"));
+        Button print = new Button("Print", e -> clicked.add("print"));
+        Button export = new Button("Export", e -> clicked.add("export"));
+        toolbar.add(print, export);
+        toolbar.setItemShortcut(save, Key.of("s"), KeyModifier.CONTROL);
+        toolbar.setItemShortcut(share, Key.of("h"), KeyModifier.CONTROL);
+        toolbar.setItemShortcut(print, Key.of("p"), KeyModifier.CONTROL);
+        toolbar.setItemShortcut(export, Key.of("e"), KeyModifier.CONTROL);
+
+        toolbar.remove(print);
+        toolbar.remove(toolbar.findOwningMenuBar(save).orElseThrow());
+        // removed without going through the toolbar
+        toolbar.findOwningMenuBar(share).orElseThrow().remove(share);
+        toolbar.dispatchShortcut("control+p");
+        toolbar.dispatchShortcut("control+s");
+        toolbar.dispatchShortcut("control+h");
+        assertTrue(clicked.isEmpty());
+        assertEquals("control+e", toolbar.getElement().getProperty("shortcutCombinations"));
+
+        toolbar.removeAll();
+        toolbar.dispatchShortcut("control+e");
+        assertTrue(clicked.isEmpty());
+        assertEquals(null, toolbar.getElement().getProperty("shortcutCombinations"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itemShortcuts_itemOfOtherToolbarRejected() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setItemShortcut(new Button("Elsewhere"), Key.of("s"), KeyModifier.CONTROL);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itemShortcuts_duplicateCombinationRejected() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setItemShortcut(toolbar.addItem("Save"), Key.of("s"), KeyModifier.CONTROL);
+        toolbar.setItemShortcut(toolbar.addItem("Share"), Key.of("s"), KeyModifier.CONTROL);
+    }
+
+    @Test
+    public void updateItemAsync_mergesQueuedUpdatesPerItem() throws InterruptedException {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuItem inbox = toolbar.addItem("Inbox", VaadinIcon.ENVELOPE.create());
+        Button send = new Button("Send");
+        toolbar.add(send);
+
+        // queue from other threads, as backend events would
+        Thread producer = new Thread(() -> {
+            for (int i = 1; i <= 1000; i++) {
+                toolbar.updateItemAsync(inbox, ToolbarItemUpdate.create().withBadge(String.valueOf(i)));
+            }
+            toolbar.updateItemAsync(inbox, ToolbarItemUpdate.create().withText("Inbox (1000)"));
+            toolbar.updateItemsAsync(Map.of(send, ToolbarItemUpdate.create().withEnabled(false)));
+            toolbar.updateItemAsync(send, ToolbarItemUpdate.create().withVisible(false));
+        });
+        producer.start();
+        producer.join();
+
+        // nothing is applied outside of the flush
+        assertEquals(null, inbox.getElement().getAttribute(ToolbarItemUpdate.BADGE_ATTRIBUTE));
+        assertTrue(send.isEnabled());
+
+        toolbar.applyPendingItemUpdates();
+        assertEquals("1000", inbox.getElement().getAttribute(ToolbarItemUpdate.BADGE_ATTRIBUTE));
+        assertEquals("Inbox (1000)", ((Button) inbox.getChildren().findFirst().orElseThrow()).getText());
+        assertFalse(send.isEnabled());
+        assertFalse(send.isVisible());
+    }
+
+    @Test
+    public void updateItemAsync_flushedViaSchedulerOfService() throws InterruptedException {
+        CountDownLatch flushed = new CountDownLatch(1);
+        UI accessUi = new MockUI() {
+            @Override
+            public Future<Void> access(Command command) {
+                command.execute();
+                flushed.countDown();
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setAsyncUpdateInterval(10);
+        Button send = new Button("Send");
+        toolbar.add(send);
+        accessUi.add(toolbar);
+
+        Thread producer = new Thread(
+                () -> toolbar.updateItemAsync(send, ToolbarItemUpdate.create().withEnabled(false)));
+        producer.start();
+        producer.join();
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        assertFalse(send.isEnabled());
+
+        // the scheduler does not outlive the service
+        VaadinService service = accessUi.getSession().getService();
+        AsyncUpdateScheduler scheduler = AsyncUpdateScheduler.get(service);
+        service.destroy();
+        assertTrue(scheduler.isShutdown());
+        assertNotSame(scheduler, AsyncUpdateScheduler.get(service));
+    }
+
+    @Test
+    public void itemUpdate_laterPropertiesWin() {
+        ToolbarItemUpdate merged = ToolbarItemUpdate.create().withEnabled(false).withText("A").withBadge("1")
+                .mergedWith(ToolbarItemUpdate.create().withText("B").withBadge(null));
+        assertEquals(Boolean.FALSE, merged.getEnabled());
+        assertEquals(null, merged.getVisible());
+        assertEquals("B", merged.getText());
+        assertEquals(null, merged.getBadge());
+    }
+
+    @Test
+    public void itemChecks_evaluatedConcurrentlyOnAttach() throws InterruptedException {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setItemCheckTimeout(Duration.ofMillis(200));
+        MenuItem allowed = toolbar.addItem("Allowed");
+        MenuItem slow = toolbar.addItem("Slow");
+        Button failing = new Button("Failing");
+        toolbar.add(failing);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        toolbar.setItemEnabledCheck(allowed, () -> true);
+        toolbar.setItemVisibleCheck(slow, () -> {
+            try {
+                return release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                return true;
+            }
+        });
+        toolbar.setItemEnabledCheck(failing, () -> {
+            throw new IllegalStateException("service unavailable");
+        });
+        // checks are only evaluated while attached
+        assertTrue(allowed.isEnabled());
+
+        try {
+            ui.add(toolbar);
+            // placeholder state until the checks complete
+            assertFalse(allowed.isEnabled());
+            assertFalse(failing.isEnabled());
+
+            toolbar.awaitItemChecks(Duration.ofSeconds(5));
+            toolbar.applyPendingItemUpdates();
+            assertTrue(allowed.isEnabled());
+            assertFalse(failing.isEnabled());
+            // timed out, and the check has been interrupted
+            assertFalse(slow.isVisible());
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void itemChecks_outdatedResultsNotApplied() throws InterruptedException {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        Button delete = new Button("Delete");
+        toolbar.add(delete);
+        ui.add(toolbar);
+
+        // a slow evaluation allowing the item, overtaken by a new evaluation denying it
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        toolbar.setItemEnabledCheck(delete, () -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return true;
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        toolbar.setItemEnabledCheck(delete, () -> false);
+        release.countDown();
+
+        toolbar.awaitItemChecks(Duration.ofSeconds(5));
+        toolbar.applyPendingItemUpdates();
+        assertFalse(delete.isEnabled());
+
+        // a result queued before the item is evaluated again is dropped
+        AtomicInteger evaluations = new AtomicInteger();
+        CountDownLatch releaseSecond = new CountDownLatch(1);
+        toolbar.setItemEnabledCheck(delete, () -> {
+            if (evaluations.incrementAndGet() > 1) {
+                try {
+                    releaseSecond.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            }
+            return true;
+        });
+        toolbar.awaitItemChecks(Duration.ofSeconds(5));
+        toolbar.refreshItemChecks();
+        toolbar.applyPendingItemUpdates();
+        assertFalse(delete.isEnabled());
+        releaseSecond.countDown();
+        toolbar.awaitItemChecks(Duration.ofSeconds(5));
+        toolbar.applyPendingItemUpdates();
+        assertTrue(delete.isEnabled());
+    }
+
+    @Test
+    public void itemChecks_droppedForRemovedItems() throws InterruptedException {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        MenuItem share = toolbar.addItem("Share");
+        Button delete = new Button("Delete");
+        toolbar.add(delete);
+        ui.add(toolbar);
+
+        AtomicInteger evaluations = new AtomicInteger();
+        toolbar.setItemEnabledCheck(share, () -> evaluations.incrementAndGet() > 0);
+        toolbar.setItemEnabledCheck(delete, () -> evaluations.incrementAndGet() > 0);
+        toolbar.awaitItemChecks(Duration.ofSeconds(5));
+        assertEquals(2, evaluations.get());
+
+        toolbar.remove(delete);
+        toolbar.findOwningMenuBar(share).orElseThrow().removeFromParent();
+        toolbar.refreshItemChecks();
+        toolbar.awaitItemChecks(Duration.ofSeconds(5));
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void itemChecks_itemOfOtherToolbarRejected() {
+        ToolbarLayout toolbar = new ToolbarLayout();
+        toolbar.setItemEnabledCheck(new Button("Elsewhere"), () -> true);
+    }
+
+    private static void fireSubMenuOpenedChanged(MenuItem item, boolean opened) {
+        ObjectNode eventData = JacksonUtils.createObjectNode();
+        eventData.put(LazySubMenu.OPENED_FILTER, opened);
+        item.getElement().getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(item.getElement(), LazySubMenu.OPENED_EVENT, eventData));
+    }
+
+    private void runBeforeClientResponse() {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+    }
+
 }